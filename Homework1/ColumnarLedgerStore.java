@@ -0,0 +1,359 @@
+/**
+ * This class stores a date-ordered list of Transactions as separate columns
+ * of primitives in off-heap (direct) memory: one column of day numbers, one
+ * of amounts in cents, and one of description ids. Descriptions are
+ * dictionary-coded, so each distinct description is kept once on the heap.
+ * Scans over dates and amounts read contiguous memory instead of following
+ * Transaction references, and the stored data creates no garbage to collect.
+ *
+ * @author Emily Tsui
+ */
+
+import java.nio.ByteBuffer; //For the off-heap columns.
+import java.util.ArrayList; //For the description dictionary.
+import java.util.HashMap; //For looking up description ids.
+import java.util.Iterator; //For walking the store in date order.
+import java.util.List; //For inserting a batch of Transactions.
+import java.util.NoSuchElementException; //If the iterator is exhausted.
+
+public class ColumnarLedgerStore implements LedgerStore {
+    public static final int INITIAL_CAPACITY = 64;
+    //A ByteBuffer is indexed by int, so the widest column, of longs, can
+    //hold no more Transactions than this. Byte offsets are computed as
+    //longs by bytes, and every index is below this, so none overflows.
+    public static final int MAX_CAPACITY = Integer.MAX_VALUE / Long.BYTES;
+
+    private ByteBuffer days; //int per Transaction.
+    private ByteBuffer amounts; //long per Transaction, in cents.
+    private ByteBuffer descriptionIds; //int per Transaction.
+    private ArrayList<String> descriptions; //Description for each id.
+    private HashMap<String, Integer> descriptionIdOf;
+    private int size, capacity;
+
+    /**
+     * This is a Constructor used to create an empty ColumnarLedgerStore.
+     */
+    public ColumnarLedgerStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * This is a Constructor used to create an empty ColumnarLedgerStore
+     * with room for capacity Transactions before its columns must grow.
+     *
+     * @param capacity The initial number of Transactions the columns hold.
+     * @throws IllegalArgumentException If capacity is over MAX_CAPACITY.
+     */
+    public ColumnarLedgerStore(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity is over " +
+                    MAX_CAPACITY + ".");
+        }
+        this.capacity = Math.max(capacity, 1);
+        days = ByteBuffer.allocateDirect(bytes(this.capacity, Integer.BYTES));
+        amounts = ByteBuffer.allocateDirect(bytes(this.capacity, Long.BYTES));
+        descriptionIds = ByteBuffer.allocateDirect(
+                bytes(this.capacity, Integer.BYTES));
+        descriptions = new ArrayList<>();
+        descriptionIdOf = new HashMap<>();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the day number of the Transaction at index without creating a
+     * Transaction object.
+     *
+     * @param index The 0-based index of the Transaction.
+     * @return The day number of the Transaction at index.
+     */
+    public int getDay(int index) {
+        checkIndex(index);
+        return days.getInt(bytes(index, Integer.BYTES));
+    }
+
+    /**
+     * Returns the amount in cents of the Transaction at index without
+     * creating a Transaction object.
+     *
+     * @param index The 0-based index of the Transaction.
+     * @return The amount in cents of the Transaction at index.
+     */
+    public long getAmountCents(int index) {
+        checkIndex(index);
+        return amounts.getLong(bytes(index, Long.BYTES));
+    }
+
+    /**
+     * Returns the description of the Transaction at index without creating
+     * a Transaction object.
+     *
+     * @param index The 0-based index of the Transaction.
+     * @return The description of the Transaction at index.
+     */
+    public String getDescription(int index) {
+        checkIndex(index);
+        return descriptions.get(
+                descriptionIds.getInt(bytes(index, Integer.BYTES)));
+    }
+
+    @Override
+    public Transaction get(int index) {
+        checkIndex(index);
+
+        try {
+            return new Transaction(days.getInt(bytes(index, Integer.BYTES)),
+                    amounts.getLong(bytes(index, Long.BYTES)),
+                    descriptions.get(descriptionIds.getInt(
+                            bytes(index, Integer.BYTES))));
+        } catch (InvalidTransactionException ex) {
+            //Only valid Transactions are ever written to the columns.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public int insert(Transaction transaction) {
+        if (size == capacity) {
+            grow();
+        }
+        int index = upperBound(transaction.getDay());
+
+        shift(days, Integer.BYTES, index, index + 1);
+        shift(amounts, Long.BYTES, index, index + 1);
+        shift(descriptionIds, Integer.BYTES, index, index + 1);
+
+        days.putInt(bytes(index, Integer.BYTES), transaction.getDay());
+        amounts.putLong(bytes(index, Long.BYTES), transaction.getAmountCents());
+        descriptionIds.putInt(bytes(index, Integer.BYTES),
+                idOf(transaction.getDescription()));
+        size++;
+
+        return index;
+    }
+
+    /**
+     * Inserts every Transaction of sorted, which must be in date order, by
+     * merging from the back of the columns in one O(n + m) pass. Each run of
+     * existing Transactions between two new ones is moved with one bulk copy.
+     *
+     * @param sorted The Transactions to insert, in date order.
+     * @throws IllegalStateException If they don't fit in MAX_CAPACITY.
+     */
+    @Override
+    public void insertAll(List<Transaction> sorted) {
+        if ((long) size + sorted.size() > MAX_CAPACITY) {
+            throw new IllegalStateException("The columns are full.");
+        }
+        while (capacity - size < sorted.size()) {
+            grow();
+        }
+        int unmoved = size; //Existing Transactions not yet moved.
+        int k = size + sorted.size() - 1;
+
+        for (int j = sorted.size() - 1; j >= 0; j--) {
+            Transaction curr = sorted.get(j);
+            int runStart = upperBound(curr.getDay(), unmoved);
+            int runLength = unmoved - runStart;
+
+            if (runLength > 0) {
+                k -= runLength;
+                move(days, Integer.BYTES, runStart, k + 1, runLength);
+                move(amounts, Long.BYTES, runStart, k + 1, runLength);
+                move(descriptionIds, Integer.BYTES, runStart, k + 1,
+                        runLength);
+                unmoved = runStart;
+            }
+            days.putInt(bytes(k, Integer.BYTES), curr.getDay());
+            amounts.putLong(bytes(k, Long.BYTES), curr.getAmountCents());
+            descriptionIds.putInt(bytes(k, Integer.BYTES),
+                    idOf(curr.getDescription()));
+            k--;
+        }
+        size += sorted.size();
+    }
+
+    @Override
+    public Transaction remove(int index) {
+        Transaction removed = get(index);
+
+        shift(days, Integer.BYTES, index + 1, index);
+        shift(amounts, Long.BYTES, index + 1, index);
+        shift(descriptionIds, Integer.BYTES, index + 1, index);
+        size--;
+
+        return removed;
+    }
+
+    @Override
+    public int indexOf(Transaction transaction) {
+        Integer descriptionId = descriptionIdOf.get(
+                transaction.getDescription());
+
+        if (descriptionId == null) {
+            return -1;
+        }
+        int last = upperBound(transaction.getDay());
+
+        for (int i = lowerBound(transaction.getDay()); i < last; i++) {
+            if (amounts.getLong(bytes(i, Long.BYTES)) ==
+                    transaction.getAmountCents() &&
+                    descriptionIds.getInt(bytes(i, Integer.BYTES)) ==
+                            descriptionId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lowerBound(int day) {
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (days.getInt(bytes(mid, Integer.BYTES)) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public int upperBound(int day) {
+        return upperBound(day, size);
+    }
+
+    /**
+     * Returns the number of the first end Transactions whose date is older
+     * than or equal to day.
+     */
+    private int upperBound(int day, int end) {
+        int low = 0;
+        int high = end;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (days.getInt(bytes(mid, Integer.BYTES)) <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public Iterator<Transaction> iterator(int fromIndex) {
+        return new Iterator<Transaction>() {
+            private int next = fromIndex;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Transaction next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    @Override
+    public LedgerStore copy() {
+        ColumnarLedgerStore copy = new ColumnarLedgerStore(capacity);
+
+        copy.days.put(0, days, 0, bytes(size, Integer.BYTES));
+        copy.amounts.put(0, amounts, 0, bytes(size, Long.BYTES));
+        copy.descriptionIds.put(0, descriptionIds, 0,
+                bytes(size, Integer.BYTES));
+        copy.descriptions.addAll(descriptions);
+        copy.descriptionIdOf.putAll(descriptionIdOf);
+        copy.size = size;
+
+        return copy;
+    }
+
+    /**
+     * Returns the dictionary id of description, adding it if it is new.
+     */
+    private int idOf(String description) {
+        Integer id = descriptionIdOf.get(description);
+
+        if (id == null) {
+            id = descriptions.size();
+            descriptions.add(description);
+            descriptionIdOf.put(description, id);
+        }
+        return id;
+    }
+
+    /**
+     * Moves the entries of column from index from to the end of the store
+     * so that they start at index to.
+     */
+    private void shift(ByteBuffer column, int width, int from, int to) {
+        move(column, width, from, to, size - from);
+    }
+
+    /**
+     * Moves count entries of column starting at index from so that they
+     * start at index to. The two ranges may overlap.
+     */
+    private static void move(ByteBuffer column, int width, int from, int to,
+                             int count) {
+        if (count > 0) {
+            column.put(bytes(to, width), column, bytes(from, width),
+                    bytes(count, width));
+        }
+    }
+
+    /**
+     * Doubles the capacity of every column, up to MAX_CAPACITY.
+     */
+    private void grow() {
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("The columns are full.");
+        }
+        capacity = (int) Math.min(2L * capacity, MAX_CAPACITY);
+        days = resize(days, bytes(capacity, Integer.BYTES),
+                bytes(size, Integer.BYTES));
+        amounts = resize(amounts, bytes(capacity, Long.BYTES),
+                bytes(size, Long.BYTES));
+        descriptionIds = resize(descriptionIds,
+                bytes(capacity, Integer.BYTES), bytes(size, Integer.BYTES));
+    }
+
+    private static ByteBuffer resize(ByteBuffer column, int bytes, int used) {
+        ByteBuffer resized = ByteBuffer.allocateDirect(bytes);
+        resized.put(0, column, 0, used);
+        return resized;
+    }
+
+    /**
+     * Returns the number of bytes taken by count entries of width bytes,
+     * which is also the offset of the entry at index count.
+     */
+    private static int bytes(int count, int width) {
+        return Math.toIntExact((long) count * width);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+}
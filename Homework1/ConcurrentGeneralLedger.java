@@ -0,0 +1,376 @@
+/**
+ * This class is a thread-safe version of GeneralLedger for posting
+ * Transactions from many threads at once. The range of valid dates is split
+ * into stripes of consecutive days, and each stripe keeps its Transactions in
+ * its own LedgerTree guarded by its own lock, so Transactions on dates in
+ * different stripes are added in parallel. Because LedgerTrees are never
+ * changed once published, reads take no locks: they read a consistent set of
+ * stripe trees and search those. Running totals are kept in LongAdders.
+ *
+ * <p>
+ * Every method except getTotalDebitCents and getTotalCreditCents is
+ * linearizable: it behaves as if it happened at a single instant between
+ * when it was called and when it returned. The totals are updated under the
+ * same lock as the Transactions, but a LongAdder is summed one cell at a
+ * time, so a total read while Transactions are being posted may count only
+ * some of them. Once posting stops, the totals are exact.
+ *
+ * @author Emily Tsui
+ */
+
+import java.util.ArrayList; //For copying into a GeneralLedger.
+import java.util.concurrent.ConcurrentHashMap; //For the duplicate index.
+import java.util.concurrent.atomic.AtomicReferenceArray; //For stripe trees.
+import java.util.concurrent.atomic.LongAdder; //For the running totals.
+import java.util.concurrent.locks.ReentrantLock; //For the stripe locks.
+import java.util.Set; //For the duplicate index.
+
+public class ConcurrentGeneralLedger {
+    public static final int DEFAULT_STRIPES = 256;
+    private static final int MAX_OPTIMISTIC_READS = 8;
+
+    private AtomicReferenceArray<LedgerTree> stripes;
+    private ReentrantLock[] locks;
+    private Set<Transaction> index; //Only checked by stripe lock holders.
+    private LongAdder totalDebitCents;
+    private LongAdder totalCreditCents;
+
+    /**
+     * Constructs an instance of the ConcurrentGeneralLedger
+     * with no Transaction objects in it and DEFAULT_STRIPES stripes.
+     */
+    public ConcurrentGeneralLedger() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs an instance of the ConcurrentGeneralLedger
+     * with no Transaction objects in it.
+     *
+     * @param numStripes
+     * The number of date ranges that can be posted to in parallel. More
+     * stripes allow more parallel posting but make positional reads slower.
+     */
+    public ConcurrentGeneralLedger(int numStripes) {
+        numStripes = Math.max(1, Math.min(numStripes, Transaction.NUM_DAYS));
+        stripes = new AtomicReferenceArray<>(numStripes);
+        locks = new ReentrantLock[numStripes];
+
+        for (int i = 0; i < numStripes; i++) {
+            stripes.set(i, new LedgerTree());
+            locks[i] = new ReentrantLock();
+        }
+        index = ConcurrentHashMap.newKeySet();
+        totalDebitCents = new LongAdder();
+        totalCreditCents = new LongAdder();
+    }
+
+    /**
+     * Adds newTransaction into this ledger if it does not already exist.
+     *
+     * @param newTransaction
+     * The new Transaction to add to the ledger.
+     *
+     * @throws InvalidTransactionException
+     * Thrown if the transaction amount is 0 or if the date is invalid.
+     * @throws TransactionAlreadyExistsException
+     * Thrown if there is already a transaction
+     * in this ledger which is equivalent to newTransaction.
+     */
+    public void addTransaction(Transaction newTransaction)
+            throws InvalidTransactionException,
+            TransactionAlreadyExistsException {
+        if (newTransaction.getAmountCents() == 0) {
+            throw new InvalidTransactionException(
+                    "Transaction amount cannot be 0.");
+        }
+        if (!Transaction.validDay(newTransaction.getDay())) {
+            throw new InvalidTransactionException(
+                    "Transaction date is invalid.");
+        }
+        int stripe = stripeOf(newTransaction.getDay());
+
+        locks[stripe].lock();
+        try {
+            //Equal Transactions share a date, so only this stripe adds them.
+            if (index.contains(newTransaction)) {
+                throw new TransactionAlreadyExistsException(
+                        "Transaction already exists in ledger.");
+            }
+            LedgerTree tree = (LedgerTree) stripes.get(stripe).copy();
+            tree.insert(newTransaction);
+            stripes.set(stripe, tree);
+            index.add(newTransaction);
+            addToTotals(newTransaction.getAmountCents());
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Removes the transaction located at position from this ledger.
+     *
+     * <p>
+     * Every stripe up to the one holding position is locked until the
+     * Transaction is removed, since adding to any of them would move it.
+     * So a removal waits for, and holds up, posting to every earlier date,
+     * and removing from the end of the ledger locks every stripe.
+     *
+     * @param position
+     * The 1-based index of the Transaction to remove.
+     *
+     * @return
+     * The removed Transaction.
+     *
+     * @throws InvalidLedgerPositionException
+     * Thrown if position is not valid.
+     */
+    public Transaction removeTransaction(int position)
+            throws InvalidLedgerPositionException {
+        if (position < 1) {
+            throw new InvalidLedgerPositionException("Position is not valid.");
+        }
+        int before = 0;
+        int stripe = 0;
+
+        //Locking stripes in order keeps the positions before them fixed.
+        try {
+            while (stripe < locks.length) {
+                locks[stripe].lock();
+                LedgerTree tree = stripes.get(stripe);
+
+                if (position <= before + tree.size()) {
+                    LedgerTree updated = (LedgerTree) tree.copy();
+                    Transaction removed = updated.remove(
+                            position - before - 1);
+                    stripes.set(stripe, updated);
+                    index.remove(removed);
+                    addToTotals(-removed.getAmountCents());
+                    return removed;
+                }
+                before += tree.size();
+                stripe++;
+            }
+            throw new InvalidLedgerPositionException("Position is not valid.");
+        } finally {
+            for (int i = Math.min(stripe, locks.length - 1); i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the Transaction located at position.
+     *
+     * @param position
+     * The position in this ledger to retrieve.
+     *
+     * @return
+     * The Transaction at the specified position in this ledger.
+     *
+     * @throws InvalidLedgerPositionException
+     * Indicates that position is not within the valid range.
+     */
+    public Transaction getTransaction(int position)
+            throws InvalidLedgerPositionException {
+        LedgerTree[] snapshot = snapshot();
+
+        if (position >= 1) {
+            for (LedgerTree tree : snapshot) {
+                if (position <= tree.size()) {
+                    return tree.get(position - 1);
+                }
+                position -= tree.size();
+            }
+        }
+        throw new InvalidLedgerPositionException("Position is not valid.");
+    }
+
+    /**
+     * Gets the position of where Transaction is in this ledger.
+     *
+     * @param transaction
+     * The Transaction to be found in this ledger.
+     *
+     * @return
+     * The position of the Transaction, -1 if not found.
+     */
+    public int getPositionOfTransaction(Transaction transaction) {
+        if (!Transaction.validDay(transaction.getDay())) {
+            return -1;
+        }
+        LedgerTree[] snapshot = snapshot();
+        int stripe = stripeOf(transaction.getDay());
+        int position = snapshot[stripe].indexOf(transaction);
+
+        if (position == -1) {
+            return -1;
+        }
+        for (int i = 0; i < stripe; i++) {
+            position += snapshot[i].size();
+        }
+        return position + 1;
+    }
+
+    /**
+     * Checks whether a certain transaction is contained in the ledger.
+     *
+     * @param transaction
+     * The Transaction to check for.
+     *
+     * @return
+     * True if this ledger contains transaction, false otherwise.
+     *
+     * @throws IllegalArgumentException
+     * Thrown if transaction is not a valid Transaction object.
+     */
+    public boolean exists(Transaction transaction)
+            throws IllegalArgumentException {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction is not a valid " +
+                    "Transaction object.");
+        }
+        if (!Transaction.validDay(transaction.getDay())) {
+            return false;
+        }
+        //The stripe tree, not the index, so this agrees with positional reads.
+        return stripes.get(stripeOf(transaction.getDay()))
+                .indexOf(transaction) != -1;
+    }
+
+    /**
+     * Checks whether any transaction with a specific date exists.
+     *
+     * @param date
+     * The date of the transaction.
+     *
+     * @return
+     * True if there's a transaction in the ledger that happened on date.
+     */
+    public boolean transactionWithDateExists(String date) {
+        int day = Transaction.parseDate(date);
+
+        if (day == -1) {
+            return false;
+        }
+        LedgerTree tree = stripes.get(stripeOf(day));
+        return tree.lowerBound(day) < tree.upperBound(day);
+    }
+
+    /**
+     * Returns the number of Transactions currently in this ledger.
+     *
+     * @return
+     * The number of Transactions in this ledger.
+     */
+    public int size() {
+        int size = 0;
+
+        for (LedgerTree tree : snapshot()) {
+            size += tree.size();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the sum of all debit amounts. While Transactions are being
+     * posted, this may count only some of them.
+     *
+     * @return The total of all positive amounts, in cents.
+     */
+    public long getTotalDebitCents() {
+        return totalDebitCents.sum();
+    }
+
+    /**
+     * Gets the sum of all credit amounts. While Transactions are being
+     * posted, this may count only some of them.
+     *
+     * @return The total of all negative amounts, in cents.
+     */
+    public long getTotalCreditCents() {
+        return totalCreditCents.sum();
+    }
+
+    /**
+     * Returns a GeneralLedger holding the Transactions of this ledger at a
+     * single instant. Later changes to either ledger don't affect the other.
+     *
+     * @return A GeneralLedger copy of this ledger.
+     */
+    public GeneralLedger toGeneralLedger() {
+        GeneralLedger copy = new GeneralLedger();
+        ArrayList<Transaction> transactions = new ArrayList<>();
+
+        for (LedgerTree tree : snapshot()) {
+            for (Transaction curr : tree) {
+                transactions.add(curr);
+            }
+        }
+        copy.addAllTransactions(transactions);
+        return copy;
+    }
+
+    /**
+     * Returns a String representation of this ledger, which is a neatly
+     * formatted table of each Transaction with its position number.
+     *
+     * @return
+     * A String representation of this ConcurrentGeneralLedger object.
+     */
+    @Override
+    public String toString() {
+        return toGeneralLedger().toString();
+    }
+
+    /**
+     * Reads every stripe tree so that together they show the ledger at a
+     * single instant. The trees are read twice without locking; since a
+     * published tree is never republished, if every stripe still holds the
+     * same tree on the second read, they all held it between the two reads.
+     * If writers keep interfering, every lock is taken instead.
+     */
+    private LedgerTree[] snapshot() {
+        LedgerTree[] snapshot = new LedgerTree[stripes.length()];
+
+        for (int attempt = 0; attempt < MAX_OPTIMISTIC_READS; attempt++) {
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = stripes.get(i);
+            }
+            int i = 0;
+
+            while (i < snapshot.length && stripes.get(i) == snapshot[i]) {
+                i++;
+            }
+            if (i == snapshot.length) {
+                return snapshot;
+            }
+        }
+
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = stripes.get(i);
+            }
+            return snapshot;
+        } finally {
+            for (ReentrantLock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private int stripeOf(int day) {
+        return (int) ((long) day * stripes.length() / Transaction.NUM_DAYS);
+    }
+
+    private void addToTotals(long amountCents) {
+        if (amountCents > 0) {
+            totalDebitCents.add(amountCents);
+        } else {
+            totalCreditCents.add(amountCents);
+        }
+    }
+}
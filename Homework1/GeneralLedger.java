@@ -1,16 +1,47 @@
 /**
  * This class implements an abstract data type for a list of Transactions
- * supporting some common operations on such lists.
+ * supporting some common operations on such lists. By default the
+ * Transactions are kept in date order in a LedgerTree, so the ledger has no
+ * fixed capacity and adding, removing, and getting a Transaction by position
+ * take O(log n) time, and a TransactionIndex answers duplicate checks in O(1)
+ * expected time. Copies of a tree-stored ledger share the nodes of both the
+ * tree and the index, so a backup is taken or restored in O(1) time.
+ * A ledger can instead be constructed with columnar storage, which keeps the
+ * Transactions as primitive columns in off-heap memory (see
+ * ColumnarLedgerStore) and finds duplicates by searching the column of dates.
+ * Either way, running totals by date and by description prefix are kept up
+ * to date as Transactions are added and removed (see LedgerAggregates), so
+ * reports such as the net worth between two dates take O(log n) time.
  *
  * @author Emily Tsui
  */
 
+import java.io.IOException; //If a table can't be written.
+import java.io.OutputStreamWriter; //For printing tables.
+import java.io.StringWriter; //For building the table String.
+import java.io.UncheckedIOException; //If a table can't be printed.
+import java.io.Writer; //Where tables are written.
+import java.util.ArrayList; //For batches of Transactions.
+import java.util.Comparator; //For sorting a batch by date.
+import java.util.HashSet; //For duplicates within a batch.
+import java.util.Iterator; //For walking two ledgers side by side.
+import java.util.List; //For batches of Transactions.
+
 public class GeneralLedger {
-    public static final int MAX_TRANSACTIONS = 50;
-    private Transaction[] ledger;
-    private double totalDebitAmount;
-    private double totalCreditAmount;
-    private int sizeCounter; //Number of Transactions currently in this ledger.
+    /**
+     * The ways a GeneralLedger can store its Transactions.
+     */
+    public enum Storage {
+        TREE, //Transaction objects in a LedgerTree.
+        COLUMNAR //Primitive columns in off-heap memory.
+    }
+
+    private Storage storage;
+    private LedgerStore ledger;
+    private TransactionIndex index; //Same Transactions as ledger or null.
+    private LedgerAggregates aggregates;
+    private long totalDebitCents;
+    private long totalCreditCents;
 
     /**
      * Constructs an instance of the GeneralLedger
@@ -20,10 +51,53 @@ public class GeneralLedger {
      * This GeneralLedger has been initialized to an empty list of Transactions.
      */
     public GeneralLedger(){
-        ledger = new Transaction[MAX_TRANSACTIONS];
-        totalDebitAmount = 0;
-        totalCreditAmount = 0;
-        sizeCounter = 0;
+        this(Storage.TREE);
+    }
+
+    /**
+     * Constructs an instance of the GeneralLedger
+     * with no Transaction objects in it that uses the given storage.
+     *
+     * @param storage
+     * How this GeneralLedger stores its Transactions.
+     *
+     * Postcondition:
+     * This GeneralLedger has been initialized to an empty list of Transactions.
+     */
+    public GeneralLedger(Storage storage){
+        this.storage = storage;
+        if(storage == Storage.COLUMNAR){
+            ledger = new ColumnarLedgerStore();
+        }else{
+            ledger = new LedgerTree();
+            index = new TransactionIndex();
+        }
+        aggregates = new LedgerAggregates();
+        totalDebitCents = 0;
+        totalCreditCents = 0;
+    }
+
+    /**
+     * Constructs a GeneralLedger from parts that are already filled, so that
+     * clone doesn't create an empty store only to replace it.
+     */
+    private GeneralLedger(Storage storage, LedgerStore ledger,
+                          TransactionIndex index,
+                          LedgerAggregates aggregates){
+        this.storage = storage;
+        this.ledger = ledger;
+        this.index = index;
+        this.aggregates = aggregates;
+    }
+
+    /**
+     * Gets how this GeneralLedger stores its Transactions.
+     *
+     * @return
+     * The storage of this GeneralLedger.
+     */
+    public Storage getStorage(){
+        return storage;
     }
 
     /**
@@ -34,17 +108,12 @@ public class GeneralLedger {
      *
      * Precondition:
      * The Transaction object has been instantiated.
-     * The number of Transaction objects in this GeneralLedger
-     * is less than MAX_TRANSACTIONS.
      *
      * Postcondition:
      * New transaction is now listed in the correct order in the list.
      * All Transactions whose date is newer than or equal
      * to newTransaction are moved back one position.
      *
-     * @throws FullGeneralLedgerException
-     * Thrown if there is no more room
-     * in this GeneralLedger to record additional transactions.
      * @throws InvalidTransactionException
      * Thrown if the transaction amount is 0 or if the date is invalid.
      * @throws TransactionAlreadyExistsException
@@ -52,16 +121,13 @@ public class GeneralLedger {
      * in this GeneralLedger which is equivalent to newTransaction.
      */
     public void addTransaction(Transaction newTransaction)
-            throws FullGeneralLedgerException, InvalidTransactionException,
+            throws InvalidTransactionException,
             TransactionAlreadyExistsException{
-        if(this.size() == MAX_TRANSACTIONS){
-            throw new FullGeneralLedgerException("General ledger is full.");
-        }
-        if(newTransaction.getAmount() == 0){
+        if(newTransaction.getAmountCents() == 0){
             throw new InvalidTransactionException(
                     "Transaction amount cannot be 0.");
         }
-        if(!Transaction.validDate(newTransaction.getDate())){
+        if(!Transaction.validDay(newTransaction.getDay())){
             throw new InvalidTransactionException(
                     "Transaction date is invalid.");
         }
@@ -70,27 +136,65 @@ public class GeneralLedger {
                     "Transaction already exists in ledger.");
         }
         else{
-            int insertPosition = sizeCounter;
-
-            while(insertPosition > 0 &&
-                    newTransaction.getDate().compareTo(
-                            ledger[insertPosition - 1].getDate()) < 0){
-                ledger[insertPosition] = ledger[insertPosition - 1];
-                insertPosition--;
+            this.ledger.insert(newTransaction);
+            if(index != null){
+                this.index.add(newTransaction);
             }
+            this.aggregates.add(newTransaction);
 
-            this.ledger[insertPosition] = newTransaction;
-
-            double amount = newTransaction.getAmount();
+            long amount = newTransaction.getAmountCents();
 
             if(amount > 0){
-                totalDebitAmount += amount;
+                totalDebitCents += amount;
             }else{
-                totalCreditAmount += amount;
+                totalCreditCents += amount;
+            }
+        }
+    }
+
+    /**
+     * Adds every Transaction of batch that is valid and not already in this
+     * GeneralLedger (or earlier in batch). The accepted Transactions are
+     * sorted by date once and merged into the ledger together, which is much
+     * faster than adding them one at a time for large batches.
+     *
+     * @param batch
+     * The Transactions to add, in any order.
+     *
+     * Postcondition:
+     * The accepted Transactions are listed in the correct order in the list.
+     * Transactions with the same date keep their order in batch and come
+     * after the Transactions with that date already in the ledger.
+     *
+     * @return
+     * The number of Transactions that were added.
+     */
+    public int addAllTransactions(List<Transaction> batch){
+        ArrayList<Transaction> accepted = new ArrayList<>(batch.size());
+        HashSet<Transaction> inBatch = new HashSet<>();
+
+        for(Transaction curr : batch){
+            if(curr.getAmountCents() != 0 && Transaction.validDay(curr.getDay())
+                    && !this.exists(curr) && inBatch.add(curr)){
+                accepted.add(curr);
             }
+        }
+        accepted.sort(Comparator.comparingInt(Transaction::getDay));
+        this.ledger.insertAll(accepted);
 
-            sizeCounter++;
+        for(Transaction curr : accepted){
+            if(index != null){
+                this.index.add(curr);
+            }
+            this.aggregates.add(curr);
+            if(curr.getAmountCents() > 0){
+                totalDebitCents += curr.getAmountCents();
+            }else{
+                totalCreditCents += curr.getAmountCents();
+            }
         }
+
+        return accepted.size();
     }
 
     /**
@@ -116,23 +220,19 @@ public class GeneralLedger {
         if(position < 1 || position > this.size()){
             throw new InvalidLedgerPositionException("Position is not valid.");
         }else{
-            Transaction remove = ledger[position - 1];
-
-            for(int i = position - 1; i < this.size(); i++){
-                ledger[i] = ledger[i + 1];
+            Transaction remove = this.ledger.remove(position - 1);
+            if(index != null){
+                this.index.remove(remove);
             }
+            this.aggregates.remove(remove);
 
-            this.ledger[sizeCounter - 1] = null;
-
-            double amount = remove.getAmount();
+            long amount = remove.getAmountCents();
 
             if(amount > 0){
-                totalDebitAmount -= amount;
+                totalDebitCents -= amount;
             }else{
-                totalCreditAmount -= amount;
+                totalCreditCents -= amount;
             }
-
-            sizeCounter--;
         }
     }
 
@@ -157,7 +257,7 @@ public class GeneralLedger {
         if(position < 1 || position > this.size()){
             throw new InvalidLedgerPositionException("Position is not valid.");
         }else{
-            return this.ledger[position - 1];
+            return this.ledger.get(position - 1);
         }
     }
 
@@ -171,16 +271,18 @@ public class GeneralLedger {
      * The position of the Transaction, -1 if not found.
      */
     public int getPositionOfTransaction(Transaction transaction){
-        for(int i = 0; i < this.size(); i++){
-            if(ledger[i].equals(transaction)){
-                return i + 1;
-            }
+        if(index != null && !index.contains(transaction)){
+            return -1;
         }
-        return -1;
+
+        int position = ledger.indexOf(transaction);
+
+        return position == -1 ? -1 : position + 1;
     }
 
     /**
-     * Prints all transactions that were posted on the specified date.
+     * Returns a view of all transactions that were posted on the specified
+     * date. Its toString is a neatly formatted table of those Transactions.
      *
      * @param generalLedger
      * The ledger of transactions to search in.
@@ -190,22 +292,44 @@ public class GeneralLedger {
      * Precondition:
      * This GeneralLedger object has been instantiated.
      *
-     * Postcondition:
-     * Displays a neatly formatted table of all Transactions
-     * that have taken place on the specified date.
+     * @return
+     * A view of the Transactions that have taken place on the specified date,
+     * which is empty if date is not a valid date.
      */
-    public static void filter(GeneralLedger generalLedger, String date){
-        System.out.printf("%-8s%-10s%12s%12s%-5s%-100s",
-                "No.", "Date", "Debit", "Credit", "", "Description");
-        System.out.println("\n-----------------------------------------------" +
-                "----------------------------------------------------");
-
-        for(int i = 0; i < generalLedger.size(); i++){
-            if(generalLedger.ledger[i].getDate().equals(date)){
-                System.out.printf("%-8d", i + 1);
-                System.out.println(generalLedger.ledger[i].toString());
-            }
+    public static LedgerRange filter(GeneralLedger generalLedger, String date){
+        int day = Transaction.parseDate(date);
+
+        return new LedgerRange(generalLedger.ledger,
+                generalLedger.ledger.lowerBound(day),
+                generalLedger.ledger.upperBound(day));
+    }
+
+    /**
+     * Returns a view of all transactions posted from fromDate to toDate
+     * inclusive, found in O(log n) time.
+     *
+     * @param fromDate
+     * The first date of the range.
+     * @param toDate
+     * The last date of the range.
+     *
+     * @return
+     * A view of the Transactions dated from fromDate to toDate, which is
+     * empty if toDate is before fromDate.
+     *
+     * @throws IllegalArgumentException
+     * Thrown if fromDate or toDate is not a valid date.
+     */
+    public LedgerRange transactionsBetween(String fromDate, String toDate)
+            throws IllegalArgumentException{
+        int fromDay = Transaction.parseDate(fromDate);
+        int toDay = Transaction.parseDate(toDate);
+
+        if(fromDay == -1 || toDay == -1){
+            throw new IllegalArgumentException("Date is invalid.");
         }
+        return new LedgerRange(ledger, ledger.lowerBound(fromDay),
+                ledger.upperBound(toDay));
     }
 
     /**
@@ -218,18 +342,151 @@ public class GeneralLedger {
      * True if there's a transaction in the ledger that happened on date.
      */
     public boolean transactionWithDateExists(String date){
-        for(int i = 0; i < this.size(); i++){
-            if(this.ledger[i].getDate().equals(date)){
-                return true;
+        int day = Transaction.parseDate(date);
+
+        return ledger.lowerBound(day) < ledger.upperBound(day);
+    }
+
+    /**
+     * Returns the totals of all transactions posted from fromDate to toDate
+     * inclusive, found in O(log n) time without reading the Transactions.
+     *
+     * @param fromDate
+     * The first date of the range.
+     * @param toDate
+     * The last date of the range.
+     *
+     * @return
+     * The number, assets, liabilities, and net worth of the Transactions in
+     * the range, which are 0 if toDate is before fromDate.
+     *
+     * @throws IllegalArgumentException
+     * Thrown if fromDate or toDate is not a valid date.
+     */
+    public LedgerTotals getTotalsBetween(String fromDate, String toDate)
+            throws IllegalArgumentException{
+        int fromDay = Transaction.parseDate(fromDate);
+        int toDay = Transaction.parseDate(toDate);
+
+        if(fromDay == -1 || toDay == -1){
+            throw new IllegalArgumentException("Date is invalid.");
+        }
+        return aggregates.between(fromDay, toDay);
+    }
+
+    /**
+     * Returns the totals of all transactions posted on date.
+     *
+     * @param date
+     * The date to total.
+     *
+     * @return
+     * The totals of the Transactions on date.
+     *
+     * @throws IllegalArgumentException
+     * Thrown if date is not a valid date.
+     */
+    public LedgerTotals getTotalsOnDate(String date)
+            throws IllegalArgumentException{
+        return getTotalsBetween(date, date);
+    }
+
+    /**
+     * Returns the totals of all transactions posted in a month.
+     *
+     * @param year
+     * The year of the month, from Transaction.FIRST_YEAR to LAST_YEAR.
+     * @param month
+     * The month to total, from 1 to 12.
+     *
+     * @return
+     * The totals of the Transactions in the month.
+     *
+     * @throws IllegalArgumentException
+     * Thrown if year or month is out of range.
+     */
+    public LedgerTotals getTotalsForMonth(int year, int month)
+            throws IllegalArgumentException{
+        if(month < 1 || month > 12){
+            throw new IllegalArgumentException("Month is invalid.");
+        }
+        int first = firstDayOfYear(year) +
+                (month - 1) * Transaction.DAYS_PER_MONTH;
+
+        return aggregates.between(first,
+                first + Transaction.DAYS_PER_MONTH - 1);
+    }
+
+    /**
+     * Returns the totals of all transactions posted in a year.
+     *
+     * @param year
+     * The year to total, from Transaction.FIRST_YEAR to LAST_YEAR.
+     *
+     * @return
+     * The totals of the Transactions in the year.
+     *
+     * @throws IllegalArgumentException
+     * Thrown if year is out of range.
+     */
+    public LedgerTotals getTotalsForYear(int year)
+            throws IllegalArgumentException{
+        int first = firstDayOfYear(year);
+
+        return aggregates.between(first,
+                first + Transaction.DAYS_PER_YEAR - 1);
+    }
+
+    /**
+     * Returns the totals of all transactions whose description starts with
+     * prefix (case-sensitive). Prefixes of up to
+     * LedgerAggregates.MAX_PREFIX_LENGTH characters are answered in O(length)
+     * time; longer prefixes are answered by scanning the ledger.
+     *
+     * @param prefix
+     * The start of the descriptions to total; "" totals every Transaction.
+     *
+     * @return
+     * The totals of the matching Transactions.
+     */
+    public LedgerTotals getTotalsForDescription(String prefix){
+        if(prefix.length() <= LedgerAggregates.MAX_PREFIX_LENGTH){
+            return aggregates.withPrefix(prefix);
+        }
+
+        int count = 0;
+        long debit = 0;
+        long credit = 0;
+
+        for(Transaction curr : ledger){
+            if(curr.getDescription().startsWith(prefix)){
+                count++;
+                if(curr.getAmountCents() > 0){
+                    debit += curr.getAmountCents();
+                }else{
+                    credit += curr.getAmountCents();
+                }
             }
         }
-        return false;
+        return new LedgerTotals(count, debit, credit);
+    }
+
+    /**
+     * Returns the day number of January 1 of year.
+     */
+    private static int firstDayOfYear(int year){
+        if(year < Transaction.FIRST_YEAR || year > Transaction.LAST_YEAR){
+            throw new IllegalArgumentException("Year is invalid.");
+        }
+        return (year - Transaction.FIRST_YEAR) * Transaction.DAYS_PER_YEAR;
     }
 
     /**
-     * Creates a deep copy of this GeneralLedger.
+     * Creates a copy of this GeneralLedger.
      * Subsequent changes to the copy will not affect
-     * the original and vice versa.
+     * the original and vice versa. A tree-stored ledger is copied in O(1)
+     * time by sharing its (unchanging) nodes and its index, and the running
+     * totals of either kind of ledger are shared the same way.
      *
      * Precondition:
      * This GeneralLedger object has been instantiated.
@@ -239,20 +496,17 @@ public class GeneralLedger {
      */
     @Override
     public Object clone(){
-        GeneralLedger ledgerCopy = new GeneralLedger();
+        GeneralLedger ledgerCopy = new GeneralLedger(storage,
+                this.ledger.copy(),
+                index != null ? this.index.copy() : null,
+                this.aggregates.copy());
 
-        for(int i = 0; i < this.size(); i++){
-            ledgerCopy.ledger[i] = (Transaction) this.ledger[i].clone();
-        }
-
-        ledgerCopy.totalDebitAmount = this.totalDebitAmount;
-        ledgerCopy.totalCreditAmount = this.totalCreditAmount;
-        ledgerCopy.sizeCounter = this.sizeCounter;
+        ledgerCopy.totalDebitCents = this.totalDebitCents;
+        ledgerCopy.totalCreditCents = this.totalCreditCents;
 
         return ledgerCopy;
     }
 
-
     /**
      * Checks whether a certain transaction is contained in the ledger.
      *
@@ -274,12 +528,10 @@ public class GeneralLedger {
             throw new IllegalArgumentException("Transaction is not a valid " +
                     "Transaction object.");
         }else{
-            for(int i = 0; i < this.size(); i++){
-                if(ledger[i].equals(transaction)){
-                    return true;
-                }
+            if(index != null){
+                return index.contains(transaction);
             }
-            return false;
+            return getPositionOfTransaction(transaction) != -1;
         }
     }
 
@@ -293,7 +545,7 @@ public class GeneralLedger {
      * The number of Transactions in this ledger.
      */
     public int size(){
-        return sizeCounter;
+        return ledger.size();
     }
 
     /**
@@ -308,7 +560,33 @@ public class GeneralLedger {
      * are printed in a neatly formatted table.
      */
     public void printAllTransactions(){
-        System.out.println(this.toString());
+        try{
+            Writer out = new OutputStreamWriter(System.out);
+
+            writeTo(out);
+            out.write(System.lineSeparator());
+            out.flush();
+        }catch(IOException ex){
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes the same table as toString to out, without building the whole
+     * table in memory or creating any Strings per Transaction, which makes
+     * printing large ledgers to reports much cheaper.
+     *
+     * @param out
+     * Where to write the table. It is flushed but not closed.
+     *
+     * @throws IOException
+     * Thrown if out fails.
+     */
+    public void writeTo(Writer out) throws IOException{
+        LedgerRenderer renderer = new LedgerRenderer(out);
+
+        renderer.writeTable(ledger);
+        renderer.flush();
     }
 
     /**
@@ -320,11 +598,12 @@ public class GeneralLedger {
         System.out.println("Financial Data for Jack's Account");
         System.out.println("-------------------------------------------------" +
                 "--------------------------------------------------");
-        System.out.printf("%12s: $%-8.2f%n", "Assets", totalDebitAmount);
+        System.out.printf("%12s: $%-8.2f%n", "Assets",
+                totalDebitCents / 100.0);
         System.out.printf("%12s: $%-8.2f%n", "Liabilities",
-                Math.abs(totalCreditAmount));
+                Math.abs(totalCreditCents) / 100.0);
         System.out.printf("%12s: $%-8.2f%n", "Net Worth",
-                totalDebitAmount - Math.abs(totalCreditAmount));
+                (totalDebitCents + totalCreditCents) / 100.0);
     }
 
     /**
@@ -337,16 +616,14 @@ public class GeneralLedger {
      */
     @Override
     public String toString(){
-        String header = String.format("%-8s%-10s%12s%12s%-5s%-100s",
-                "No.", "Date", "Debit", "Credit", "", "Description");
-        String line = "------------------------------------------------------" +
-                "---------------------------------------------";
-        StringBuilder formatted = new StringBuilder(header + "\n" + line);
-
-        for(int i = 0; i < this.size(); i++){
-            formatted.append("\n");
-            formatted.append(String.format("%-8d%s", i + 1,
-                    this.ledger[i].toString()));
+        StringWriter formatted = new StringWriter(
+                LedgerRenderer.HEADER.length() + 80 * Math.min(size(), 1 << 20));
+
+        try{
+            writeTo(formatted);
+        }catch(IOException ex){
+            //A StringWriter never fails.
+            throw new UncheckedIOException(ex);
         }
 
         return formatted.toString();
@@ -362,24 +639,35 @@ public class GeneralLedger {
      * @return
      * True if that obj refers to a GeneralLedger object with
      * the same attributes as this GeneralLedger, otherwise false.
+     * Comparing a tree-stored ledger with its backup takes O(1) time unless
+     * the two have different Transactions with the same sequence hash.
      */
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof GeneralLedger){
             GeneralLedger generalLedger = (GeneralLedger) obj;
 
-            if(this.size() != generalLedger.size()){
+            if(this.size() != generalLedger.size() ||
+                    this.totalDebitCents != generalLedger.totalDebitCents ||
+                    this.totalCreditCents != generalLedger.totalCreditCents){
                 return false;
             }
 
-            for(int i = 0; i < this.size(); i++){
-                if (!this.ledger[i].equals(generalLedger.ledger[i])){
+            if(this.ledger instanceof LedgerTree &&
+                    generalLedger.ledger instanceof LedgerTree){
+                return ((LedgerTree) this.ledger).sameSequence(
+                        (LedgerTree) generalLedger.ledger);
+            }
+
+            Iterator<Transaction> other = generalLedger.ledger.iterator();
+
+            for(Transaction curr : ledger){
+                if (!curr.equals(other.next())){
                     return false;
                 }
             }
 
-            return this.totalDebitAmount == generalLedger.totalDebitAmount &&
-                    this.totalCreditAmount == generalLedger.totalCreditAmount;
+            return true;
         }else{
             return false;
         }
@@ -4,29 +4,53 @@
  * @author Emily Tsui
  */
 
+import java.io.IOException; //If the journal can't be read or written.
 import java.util.Scanner; //For user input.
 import java.util.InputMismatchException; //If there's a wrong data type input.
 
 public class GeneralLedgerManager {
+    public static final String JOURNAL_FILE = "ledger.journal";
+    public static final String SNAPSHOT_FILE = "ledger.snapshot";
+
     /**
      * The main method runs a menu driven application.
+     * The ledger saved by the last run is restored from its journal, and
+     * every change is journaled so it is kept after the program quits.
      * The program prompts the user for a command to execute an operation.
      * Once a command has been chosen,
      * the program may ask the user
      * for additional information if necessary and performs the operation.
      *
      * @param args
-     * An array of command-line arguments passed to the program
+     * An array of command-line arguments passed to the program. Passing
+     * "columnar" stores the ledger in off-heap columns.
      */
     public static void main(String[] args){
         Scanner stdin = new Scanner(System.in);
-        GeneralLedger ledger = new GeneralLedger();
+        GeneralLedger ledger = new GeneralLedger(
+                args.length > 0 && args[0].equalsIgnoreCase("columnar") ?
+                        GeneralLedger.Storage.COLUMNAR :
+                        GeneralLedger.Storage.TREE);
         GeneralLedger backupCopy = new GeneralLedger();
         boolean done = false;
         String date = "";
         double amount = 0;
         String description = "";
         int position = 0;
+        LedgerJournal journal = null;
+
+        try{
+            journal = new LedgerJournal(JOURNAL_FILE, SNAPSHOT_FILE);
+            journal.replay(ledger);
+            System.out.println("Restored " + ledger.size() +
+                    " transactions from the journal.\n");
+        }catch(IOException ex){
+            System.out.println(ex);
+            System.out.println("Journal not available: changes will not be " +
+                    "saved.\n");
+            journal = null;
+            ledger = new GeneralLedger(ledger.getStorage());
+        }
 
         while(!done){
             System.out.print(
@@ -35,6 +59,7 @@ public class GeneralLedgerManager {
                     "(R) Remove Transaction\n" +
                     "(P) Print Transactions in General Ledger\n" +
                     "(F) Filter by Date\n" +
+                    "(I) Import Transactions from File\n" +
                     "(L) Look for Transaction\n" +
                     "(S) Size\n" +
                     "(B) Backup\n" +
@@ -62,7 +87,15 @@ public class GeneralLedgerManager {
 
                         Transaction newTransaction = new Transaction(
                                 date, amount, description);
+                        if(journal != null &&
+                                !LedgerJournal.fits(newTransaction)){
+                            throw new InvalidTransactionException(
+                                    "Description is too long.");
+                        }
                         ledger.addTransaction(newTransaction);
+                        if(journal != null){
+                            journal.recordAdd(newTransaction);
+                        }
 
                         System.out.println("\nTransaction successfully added " +
                                 "to the general ledger.\n");
@@ -75,11 +108,14 @@ public class GeneralLedgerManager {
                         System.out.println("Transaction not added: " +
                                 "Transaction already exists " +
                                 "in the general ledger.\n");
-                    }catch(FullGeneralLedgerException |
-                           InvalidTransactionException ex){
+                    }catch(InvalidTransactionException ex){
                         System.out.println("\n" + ex);
                         System.out.println("Transaction was not successfully " +
                                 "added to the general ledger.\n");
+                    }catch(IOException ex){
+                        System.out.println("\n" + ex);
+                        System.out.println("Transaction added but not saved " +
+                                "to the journal.\n");
                     }
                     break;
                 case "G": //Displays information of Transaction at position.
@@ -119,6 +155,9 @@ public class GeneralLedgerManager {
                         stdin.nextLine();
 
                         ledger.removeTransaction(position);
+                        if(journal != null){
+                            journal.recordRemove(position);
+                        }
                         System.out.println("\nTransaction has been " +
                                 "successfully removed from the general ledger" +
                                 ".\n");
@@ -130,6 +169,10 @@ public class GeneralLedgerManager {
                         System.out.println("\n" + ex);
                         System.out.println("Transaction not removed: " +
                                 "No such transaction in the general ledger.\n");
+                    }catch(IOException ex){
+                        System.out.println("\n" + ex);
+                        System.out.println("Transaction removed but not " +
+                                "saved to the journal.\n");
                     }
                     break;
                 case "P": //Displays all transaction in the General Ledger.
@@ -149,7 +192,7 @@ public class GeneralLedgerManager {
 
                     if(ledger.transactionWithDateExists(date)){
                         System.out.println();
-                        GeneralLedger.filter(ledger, date);
+                        System.out.println(GeneralLedger.filter(ledger, date));
                         System.out.println("\nSuccessfully printed all " +
                                 "transactions in the General Ledger " +
                                 "that were posted on " + date + ".\n");
@@ -158,6 +201,41 @@ public class GeneralLedgerManager {
                                 + date + ".\n");
                     }
                     break;
+                case "I": //Adds every transaction listed in a file.
+                    System.out.print("\nEnter File Name: ");
+                    String file = stdin.nextLine();
+
+                    LedgerImporter importer =
+                            new LedgerImporter(ledger, journal != null);
+
+                    try{
+                        importer.importFile(file);
+
+                        System.out.printf("%nImported %d of %d transactions " +
+                                "(%d invalid, %d duplicates) at %.0f rows/sec." +
+                                "%n%n", importer.getNumAdded(),
+                                importer.getNumRows(),
+                                importer.getNumInvalid(),
+                                importer.getNumDuplicates(),
+                                importer.getRowsPerSecond());
+                    }catch(IOException ex){
+                        System.out.println("\n" + ex);
+                        System.out.println("Only " + importer.getNumAdded() +
+                                " transactions were imported.\n");
+                    }finally{
+                        //Batches added before a failure must be saved too, or
+                        //later removals would not replay to the same ledger.
+                        if(journal != null && importer.getNumAdded() > 0){
+                            try{
+                                journal.compact(ledger);
+                            }catch(IOException ex){
+                                System.out.println(ex);
+                                System.out.println("Imported transactions " +
+                                        "were not saved to the journal.\n");
+                            }
+                        }
+                    }
+                    break;
                 case "L": //Determines if a transaction is in current ledger.
                     try{
                         System.out.print("\nEnter Date: ");
@@ -237,6 +315,15 @@ public class GeneralLedgerManager {
                         ledger = (GeneralLedger) backupCopy.clone();
                         System.out.println("\nGeneral ledger successfully " +
                                 "reverted to the backup copy.\n");
+                        if(journal != null){
+                            try{
+                                journal.compact(ledger);
+                            }catch(IOException ex){
+                                System.out.println(ex);
+                                System.out.println("Reverted ledger not " +
+                                        "saved to the journal.\n");
+                            }
+                        }
                     }else{
                         System.out.println("General Ledger not " +
                                 "successfully reverted: no backup exists.\n");
@@ -260,6 +347,13 @@ public class GeneralLedgerManager {
                 case "Q": //Terminates the program.
                     System.out.println("\nProgram terminating successfully...");
                     done = true;
+                    if(journal != null){
+                        try{
+                            journal.close();
+                        }catch(IOException ex){
+                            System.out.println(ex);
+                        }
+                    }
                     break;
                 default:
                     System.out.println("\nPlease enter a selection " +
@@ -0,0 +1,297 @@
+/**
+ * This class keeps running totals of the Transactions in a GeneralLedger so
+ * that reports over a range of dates or a group of descriptions are answered
+ * without reading the Transactions themselves.
+ *
+ * <p>
+ * Totals by date are kept in a segment tree over the day numbers, where each
+ * node holds the totals of a range of days and only the ranges holding a
+ * Transaction have nodes. Adding or removing a Transaction and summing any
+ * range of days (a day, a month, a year, or any two dates) each take
+ * O(log D) time, where D is Transaction.NUM_DAYS. Totals by description are
+ * kept in a trie of the first MAX_PREFIX_LENGTH characters of each
+ * description, where every node holds the totals of the descriptions
+ * starting with its prefix.
+ *
+ * <p>
+ * Both trees are persistent: a copy shares every node with the original in
+ * O(1) time. Each node records which LedgerAggregates may change it in
+ * place, and a shared node is copied (along with the path to it) the first
+ * time either one changes it, so an update still takes O(log D + length)
+ * time.
+ *
+ * @author Emily Tsui
+ */
+
+import java.util.Arrays; //For growing the child arrays of the trie.
+
+public class LedgerAggregates {
+    public static final int MAX_PREFIX_LENGTH = 8;
+
+    private Object owner; //Marks the nodes these totals may change.
+    private DayNode days; //Covers days 0 to NUM_DAYS - 1, null if empty.
+    private PrefixNode prefixes;
+
+    /**
+     * This is a Constructor used to create LedgerAggregates with no
+     * Transactions.
+     */
+    public LedgerAggregates() {
+        owner = new Object();
+        prefixes = new PrefixNode(owner);
+    }
+
+    /**
+     * Adds transaction to the totals.
+     *
+     * <p>
+     * Precondition:
+     * transaction has a valid date.
+     *
+     * @param transaction The Transaction to add.
+     */
+    public void add(Transaction transaction) {
+        update(transaction, 1);
+    }
+
+    /**
+     * Removes transaction from the totals.
+     *
+     * <p>
+     * Precondition:
+     * transaction was added to these totals and not yet removed.
+     *
+     * @param transaction The Transaction to remove.
+     */
+    public void remove(Transaction transaction) {
+        update(transaction, -1);
+    }
+
+    /**
+     * Returns the totals of the Transactions dated from fromDay to toDay
+     * inclusive.
+     *
+     * @param fromDay The day number of the first date of the range.
+     * @param toDay The day number of the last date of the range.
+     * @return The totals of the range, which are 0 if it is empty.
+     */
+    public LedgerTotals between(int fromDay, int toDay) {
+        fromDay = Math.max(fromDay, 0);
+        toDay = Math.min(toDay, Transaction.NUM_DAYS - 1);
+        long[] totals = new long[3]; //count, debit cents, credit cents
+
+        if (fromDay <= toDay) {
+            sum(days, 0, Transaction.NUM_DAYS, fromDay, toDay + 1, totals);
+        }
+        return new LedgerTotals((int) totals[0], totals[1], totals[2]);
+    }
+
+    /**
+     * Returns the totals of the Transactions whose description starts with
+     * prefix.
+     *
+     * <p>
+     * Precondition:
+     * prefix.length() <= MAX_PREFIX_LENGTH.
+     *
+     * @param prefix The start of the descriptions to total.
+     * @return The totals of the matching Transactions.
+     */
+    public LedgerTotals withPrefix(String prefix) {
+        PrefixNode node = prefixes;
+
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i), false, null);
+        }
+        if (node == null) {
+            return new LedgerTotals(0, 0, 0);
+        }
+        return new LedgerTotals(node.count, node.debitCents, node.creditCents);
+    }
+
+    /**
+     * Creates a copy of these totals in O(1) time by sharing their nodes.
+     * Subsequent changes to the copy will not affect the original and vice
+     * versa.
+     *
+     * @return A copy of these LedgerAggregates.
+     */
+    public LedgerAggregates copy() {
+        LedgerAggregates copy = new LedgerAggregates();
+
+        copy.days = days;
+        copy.prefixes = prefixes;
+        owner = new Object(); //The shared nodes now belong to neither.
+        return copy;
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) transaction from every total.
+     */
+    private void update(Transaction transaction, int sign) {
+        boolean debit = transaction.getAmountCents() > 0;
+        long amount = sign * transaction.getAmountCents();
+
+        days = update(days, 0, Transaction.NUM_DAYS, transaction.getDay(),
+                sign, debit ? amount : 0, debit ? 0 : amount);
+
+        String description = transaction.getDescription();
+        int length = Math.min(description.length(), MAX_PREFIX_LENGTH);
+
+        if (prefixes.owner != owner) {
+            prefixes = prefixes.copy(owner);
+        }
+        PrefixNode node = prefixes;
+
+        for (int i = 0; i <= length; i++) {
+            if (debit) {
+                node.debitCents += amount;
+            } else {
+                node.creditCents += amount;
+            }
+            node.count += sign;
+
+            if (i < length) {
+                node = node.child(description.charAt(i), sign > 0, owner);
+            }
+        }
+    }
+
+    /**
+     * Adds the totals to every node on the path to day in the subtree node
+     * covering days low up to but not including high, copying the nodes
+     * these totals don't own, and returns the node to use in its place.
+     */
+    private DayNode update(DayNode node, int low, int high, int day,
+                           int count, long debitCents, long creditCents) {
+        if (node == null) {
+            node = new DayNode(owner);
+        } else if (node.owner != owner) {
+            node = node.copy(owner);
+        }
+        node.count += count;
+        node.debitCents += debitCents;
+        node.creditCents += creditCents;
+
+        if (high - low > 1) {
+            int middle = (low + high) >>> 1;
+
+            if (day < middle) {
+                node.left = update(node.left, low, middle, day, count,
+                        debitCents, creditCents);
+            } else {
+                node.right = update(node.right, middle, high, day, count,
+                        debitCents, creditCents);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Adds the totals of days from up to but not including to in the
+     * subtree node, which covers days low up to but not including high, to
+     * totals.
+     */
+    private static void sum(DayNode node, int low, int high, int from,
+                            int to, long[] totals) {
+        if (node == null || to <= low || high <= from) {
+            return;
+        }
+        if (from <= low && high <= to) {
+            totals[0] += node.count;
+            totals[1] += node.debitCents;
+            totals[2] += node.creditCents;
+            return;
+        }
+        int middle = (low + high) >>> 1;
+
+        sum(node.left, low, middle, from, to, totals);
+        sum(node.right, middle, high, from, to, totals);
+    }
+
+    /**
+     * A segment tree node holding the totals of the Transactions in its
+     * range of days.
+     */
+    private static class DayNode {
+        private Object owner;
+        private DayNode left, right;
+        private int count;
+        private long debitCents;
+        private long creditCents;
+
+        private DayNode(Object owner) {
+            this.owner = owner;
+        }
+
+        private DayNode copy(Object owner) {
+            DayNode copy = new DayNode(owner);
+
+            copy.left = left;
+            copy.right = right;
+            copy.count = count;
+            copy.debitCents = debitCents;
+            copy.creditCents = creditCents;
+            return copy;
+        }
+    }
+
+    /**
+     * A trie node holding the totals of the descriptions that start with the
+     * characters on the path to it. Children are kept in small parallel
+     * arrays, which are searched faster than a map for the few characters
+     * that usually follow a prefix.
+     */
+    private static class PrefixNode {
+        private Object owner;
+        private char[] keys = new char[0];
+        private PrefixNode[] children = new PrefixNode[0];
+        private int count;
+        private long debitCents;
+        private long creditCents;
+
+        private PrefixNode(Object owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Returns the child for key, creating it if create is true, or null
+         * if there is no such child and create is false. If owner is not
+         * null, this node must belong to it, and a child that doesn't is
+         * replaced by a copy that does.
+         */
+        private PrefixNode child(char key, boolean create, Object owner) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    if (owner != null && children[i].owner != owner) {
+                        children[i] = children[i].copy(owner);
+                    }
+                    return children[i];
+                }
+            }
+            if (!create) {
+                return null;
+            }
+            int n = keys.length;
+            keys = Arrays.copyOf(keys, n + 1);
+            children = Arrays.copyOf(children, n + 1);
+            keys[n] = key;
+            children[n] = new PrefixNode(owner);
+            return children[n];
+        }
+
+        /**
+         * Returns a copy of this node that shares its children.
+         */
+        private PrefixNode copy(Object owner) {
+            PrefixNode copy = new PrefixNode(owner);
+
+            copy.keys = keys.clone();
+            copy.children = children.clone();
+            copy.count = count;
+            copy.debitCents = debitCents;
+            copy.creditCents = creditCents;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * This class loads Transactions into a GeneralLedger from a text file with
+ * one "date,amount,description" row per line (a tab may be used instead of
+ * the commas). The file is streamed through a buffered reader in batches of
+ * BATCH_SIZE rows; each batch is validated, sorted by date once, and merged
+ * into the ledger together instead of being added row by row. Rows with an
+ * invalid date or amount, or that duplicate a Transaction already in the
+ * ledger, are counted and skipped.
+ *
+ * @author Emily Tsui
+ */
+
+import java.io.BufferedReader; //For streaming the file.
+import java.io.BufferedWriter; //For writing generated files.
+import java.io.IOException; //If the file can't be read or written.
+import java.nio.charset.StandardCharsets; //For reading the file as UTF-8.
+import java.nio.file.Files; //For opening the file.
+import java.nio.file.Path; //For the file location.
+import java.util.ArrayList; //For a batch of Transactions.
+import java.util.Random; //For generating Transactions.
+
+public class LedgerImporter {
+    public static final int BATCH_SIZE = 1 << 16;
+
+    private GeneralLedger ledger;
+    private boolean journaled;
+    private long numRows, numAdded, numInvalid, numDuplicates, elapsedNanos;
+
+    /**
+     * This is a Constructor used to create a LedgerImporter for ledger.
+     *
+     * @param ledger The GeneralLedger to add the Transactions to.
+     * @param journaled
+     * True if the ledger is saved by a LedgerJournal, so rows whose
+     * description is too long for a journal record are counted as invalid.
+     */
+    public LedgerImporter(GeneralLedger ledger, boolean journaled) {
+        this.ledger = ledger;
+        this.journaled = journaled;
+    }
+
+    /**
+     * Adds every valid, new Transaction in file to the ledger. A first line
+     * starting with "date" is taken as a header and skipped.
+     *
+     * @param file The location of the file to import.
+     *
+     * @throws IOException
+     * Thrown if the file can't be read.
+     */
+    public void importFile(String file) throws IOException {
+        long start = System.nanoTime();
+        ArrayList<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(file),
+                StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+
+            if (line != null && line.regionMatches(true, 0, "date", 0, 4)) {
+                line = reader.readLine();
+            }
+            while (line != null) {
+                if (!line.isEmpty()) {
+                    numRows++;
+                    Transaction transaction = parseRow(line);
+
+                    if (transaction == null) {
+                        numInvalid++;
+                    } else {
+                        batch.add(transaction);
+                    }
+                    if (batch.size() == BATCH_SIZE) {
+                        addBatch(batch);
+                    }
+                }
+                line = reader.readLine();
+            }
+        }
+        addBatch(batch);
+        elapsedNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Gets the number of rows read so far (not counting a header).
+     *
+     * @return The number of rows read.
+     */
+    public long getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Gets the number of Transactions added to the ledger so far.
+     *
+     * @return The number of Transactions added.
+     */
+    public long getNumAdded() {
+        return numAdded;
+    }
+
+    /**
+     * Gets the number of rows that were skipped.
+     *
+     * @return The number of invalid and duplicate rows.
+     */
+    public long getNumRejected() {
+        return numInvalid + numDuplicates;
+    }
+
+    /**
+     * Gets the number of rows skipped because they could not be read as a
+     * valid Transaction.
+     *
+     * @return The number of invalid rows.
+     */
+    public long getNumInvalid() {
+        return numInvalid;
+    }
+
+    /**
+     * Gets the number of rows skipped because the Transaction was already in
+     * the ledger or earlier in the file.
+     *
+     * @return The number of duplicate rows.
+     */
+    public long getNumDuplicates() {
+        return numDuplicates;
+    }
+
+    /**
+     * Gets the number of rows read per second while importing.
+     *
+     * @return The import rate in rows per second.
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : numRows * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Writes a file of numRows random rows that can be imported, for
+     * testing imports of large ledgers.
+     *
+     * @param file The location of the file to write.
+     * @param numRows The number of rows to write.
+     * @param seed The seed for the random rows.
+     *
+     * @throws IOException
+     * Thrown if the file can't be written.
+     */
+    public static void generateFile(String file, long numRows, long seed)
+            throws IOException {
+        Random random = new Random(seed);
+        String[] descriptions = {"Rent", "Salary", "Groceries", "Utilities",
+                "Transfer", "Dividend", "Insurance", "Refund"};
+
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(file),
+                StandardCharsets.UTF_8)) {
+            writer.write("date,amount,description");
+            writer.newLine();
+
+            for (long i = 0; i < numRows; i++) {
+                long cents = random.nextInt(2000000) - 1000000;
+
+                writer.write(Transaction.formatDate(
+                        random.nextInt(Transaction.NUM_DAYS)));
+                writer.write(cents < 0 ? ",-" : ",");
+                cents = Math.max(Math.abs(cents), 1);
+                writer.write(Long.toString(cents / 100));
+                writer.write(cents % 100 < 10 ? ".0" : ".");
+                writer.write(Long.toString(cents % 100));
+                writer.write(',');
+                writer.write(descriptions[random.nextInt(descriptions.length)]);
+                writer.write(" #");
+                writer.write(Long.toString(i));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Merges batch into the ledger and empties it.
+     */
+    private void addBatch(ArrayList<Transaction> batch) {
+        int added = ledger.addAllTransactions(batch);
+
+        numAdded += added;
+        numDuplicates += batch.size() - added;
+        batch.clear();
+    }
+
+    /**
+     * Reads one row, returning null if it is not a valid Transaction.
+     */
+    private Transaction parseRow(String line) {
+        char separator = line.indexOf('\t') >= 0 ? '\t' : ',';
+        int firstSeparator = line.indexOf(separator);
+        int secondSeparator = line.indexOf(separator, firstSeparator + 1);
+
+        if (firstSeparator < 0 || secondSeparator < 0) {
+            return null;
+        }
+        try {
+            Transaction transaction = new Transaction(
+                    line.substring(0, firstSeparator).trim(),
+                    Double.parseDouble(line.substring(firstSeparator + 1,
+                            secondSeparator).trim()),
+                    line.substring(secondSeparator + 1).trim());
+
+            if (journaled && !LedgerJournal.fits(transaction)) {
+                return null;
+            }
+            return transaction;
+        } catch (NumberFormatException | InvalidTransactionException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a file of random rows for testing imports.
+     *
+     * @param args
+     * The location of the file to write and the number of rows.
+     *
+     * @throws IOException
+     * Thrown if the file can't be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: java LedgerImporter <file> <rows>");
+            return;
+        }
+        generateFile(args[0], Long.parseLong(args[1]), 0);
+        System.out.println("Wrote " + args[1] + " rows to " + args[0] + ".");
+    }
+}
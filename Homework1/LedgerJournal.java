@@ -0,0 +1,350 @@
+/**
+ * This class saves a GeneralLedger to disk so it survives after the program
+ * quits. Every added or removed Transaction is appended to a memory-mapped
+ * journal file as a fixed-width binary record. Once the journal holds
+ * COMPACT_THRESHOLD records it is compacted: the whole ledger is written to
+ * a snapshot file and the journal is emptied. Restoring a ledger reads the
+ * snapshot and then replays the journal, both as sequential scans.
+ *
+ * <p>
+ * Every record is RECORD_BYTES long: a 1 byte operation, a 4 byte day number
+ * (or position for a removal), an 8 byte amount in cents, a 2 byte
+ * description length, and the description in UTF-8. A zero operation byte
+ * marks the end of the journal. Both files start with a header holding a
+ * generation number, which lets a journal that was already compacted into
+ * the snapshot be recognized and skipped. The snapshot can be larger than
+ * one mapping allows, so it is mapped CHUNK_RECORDS records at a time.
+ *
+ * @author Emily Tsui
+ */
+
+import java.io.IOException; //If a file can't be read or written.
+import java.nio.MappedByteBuffer; //For the memory-mapped files.
+import java.nio.channels.FileChannel; //For mapping the files.
+import java.nio.charset.StandardCharsets; //For encoding descriptions.
+import java.nio.file.Files; //For replacing the snapshot.
+import java.nio.file.Path; //For file locations.
+import java.nio.file.StandardCopyOption; //For replacing the snapshot.
+import java.nio.file.StandardOpenOption; //For opening the files.
+
+public class LedgerJournal {
+    public static final int RECORD_BYTES = 128;
+    public static final int MAX_DESCRIPTION_BYTES = RECORD_BYTES - 15;
+    public static final int COMPACT_THRESHOLD = 10000;
+
+    private static final int MAGIC = 0x4C45444A; //"LEDJ"
+    private static final int HEADER_BYTES = 16; //magic, unused, generation
+    private static final int INITIAL_RECORDS = 1024;
+    private static final int CHUNK_RECORDS = 1 << 20; //128 MB per mapping.
+    private static final byte END = 0;
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+
+    private Path journalFile, snapshotFile;
+    private FileChannel channel;
+    private MappedByteBuffer journal;
+    private long generation;
+    private int numRecords;
+    private GeneralLedger ledger;
+
+    /**
+     * This is a Constructor used to open (or create) a journal and snapshot.
+     *
+     * @param journalFile The location of the journal file.
+     * @param snapshotFile The location of the snapshot file.
+     *
+     * @throws IOException
+     * Thrown if the journal file can't be opened or mapped.
+     */
+    public LedgerJournal(String journalFile, String snapshotFile)
+            throws IOException {
+        this.journalFile = Path.of(journalFile);
+        this.snapshotFile = Path.of(snapshotFile);
+        channel = FileChannel.open(this.journalFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        journal = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                Math.max(channel.size(),
+                        HEADER_BYTES + (long) INITIAL_RECORDS * RECORD_BYTES));
+
+        if (journal.getInt(0) != MAGIC) {
+            journal.putInt(0, MAGIC);
+            journal.putLong(8, 0);
+        }
+        generation = journal.getLong(8);
+        numRecords = 0;
+    }
+
+    /**
+     * Checks whether transaction's description is short enough to be
+     * recorded in the journal.
+     *
+     * @param transaction The Transaction to check.
+     * @return True if transaction fits in one record, false otherwise.
+     */
+    public static boolean fits(Transaction transaction) {
+        return transaction.getDescription().getBytes(
+                StandardCharsets.UTF_8).length <= MAX_DESCRIPTION_BYTES;
+    }
+
+    /**
+     * Gets the number of records currently in the journal.
+     *
+     * @return The number of records since the last compaction.
+     */
+    public int getNumRecords() {
+        return numRecords;
+    }
+
+    /**
+     * Restores the saved ledger into ledger by reading the snapshot and then
+     * replaying the journal, and records later changes against ledger.
+     *
+     * <p>
+     * Precondition:
+     * ledger is empty.
+     *
+     * @param ledger The GeneralLedger to restore into.
+     *
+     * @throws IOException
+     * Thrown if the files can't be read or hold records that don't apply to
+     * the ledger.
+     */
+    public void replay(GeneralLedger ledger) throws IOException {
+        this.ledger = ledger;
+        long snapshotGeneration = -1;
+
+        if (Files.exists(snapshotFile)) {
+            try (FileChannel snapshotChannel = FileChannel.open(snapshotFile,
+                    StandardOpenOption.READ)) {
+                long size = snapshotChannel.size();
+
+                if (size < HEADER_BYTES) {
+                    throw new IOException("Snapshot file is corrupt.");
+                }
+                MappedByteBuffer header = snapshotChannel.map(
+                        FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+
+                if (header.getInt(0) != MAGIC) {
+                    throw new IOException("Snapshot file is corrupt.");
+                }
+                snapshotGeneration = header.getLong(8);
+
+                long total = (size - HEADER_BYTES) / RECORD_BYTES;
+                long applied = 0;
+
+                for (long first = 0; first < total; first += CHUNK_RECORDS) {
+                    long count = Math.min(CHUNK_RECORDS, total - first);
+                    MappedByteBuffer chunk = snapshotChannel.map(
+                            FileChannel.MapMode.READ_ONLY,
+                            HEADER_BYTES + first * RECORD_BYTES,
+                            count * RECORD_BYTES);
+                    int n = apply(chunk, 0, applied);
+
+                    applied += n;
+                    if (n < count) { //Reached the end record.
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (generation < snapshotGeneration) {
+            //Crashed while compacting: the snapshot already has the journal.
+            while (journal.get((int) (HEADER_BYTES +
+                    (long) numRecords * RECORD_BYTES)) != END) {
+                numRecords++;
+            }
+            generation = snapshotGeneration;
+            resetJournal();
+        } else {
+            numRecords = apply(journal, HEADER_BYTES, 0);
+        }
+    }
+
+    /**
+     * Appends a record for a Transaction that was added to the ledger.
+     *
+     * @param transaction The Transaction that was added.
+     *
+     * @throws IOException
+     * Thrown if the journal can't grow or be compacted.
+     */
+    public void recordAdd(Transaction transaction) throws IOException {
+        append(ADD, transaction.getDay(), transaction.getAmountCents(),
+                transaction.getDescription());
+    }
+
+    /**
+     * Appends a record for a Transaction that was removed from the ledger.
+     *
+     * @param position The 1-based position the Transaction was removed from.
+     *
+     * @throws IOException
+     * Thrown if the journal can't grow or be compacted.
+     */
+    public void recordRemove(int position) throws IOException {
+        append(REMOVE, position, 0, "");
+    }
+
+    /**
+     * Writes every Transaction of ledger to a new snapshot, empties the
+     * journal, and records later changes against ledger.
+     *
+     * @param ledger The GeneralLedger whose contents are saved.
+     *
+     * @throws IOException
+     * Thrown if the snapshot or journal can't be written.
+     */
+    public void compact(GeneralLedger ledger) throws IOException {
+        this.ledger = ledger;
+        Path tempFile = snapshotFile.resolveSibling(
+                snapshotFile.getFileName() + ".tmp");
+
+        try (FileChannel snapshotChannel = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            int size = ledger.size();
+
+            for (int first = 0; first < size; first += CHUNK_RECORDS) {
+                int count = Math.min(CHUNK_RECORDS, size - first);
+                MappedByteBuffer chunk = snapshotChannel.map(
+                        FileChannel.MapMode.READ_WRITE,
+                        HEADER_BYTES + (long) first * RECORD_BYTES,
+                        (long) count * RECORD_BYTES);
+
+                for (int j = 0; j < count; j++) {
+                    Transaction curr = ledger.getTransaction(first + j + 1);
+                    write(chunk, j * RECORD_BYTES, ADD, curr.getDay(),
+                            curr.getAmountCents(), curr.getDescription());
+                }
+                chunk.force();
+            }
+
+            //Mapping past the end of the file grows it with zeroes, which
+            //is the end record.
+            snapshotChannel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + (long) size * RECORD_BYTES, RECORD_BYTES);
+            MappedByteBuffer header = snapshotChannel.map(
+                    FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+
+            header.putInt(0, MAGIC);
+            header.putLong(8, generation + 1);
+            header.force();
+        } catch (InvalidLedgerPositionException ex) {
+            throw new IOException(ex);
+        }
+
+        Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        generation++;
+        resetJournal();
+    }
+
+    /**
+     * Flushes the journal to disk and closes it.
+     *
+     * @throws IOException
+     * Thrown if the journal can't be closed.
+     */
+    public void close() throws IOException {
+        journal.force();
+        channel.close();
+    }
+
+    /**
+     * Appends one record to the journal, growing it if it is full and
+     * compacting it once it holds COMPACT_THRESHOLD records.
+     */
+    private void append(byte operation, int day, long amountCents,
+                        String description) throws IOException {
+        long offset = HEADER_BYTES + (long) numRecords * RECORD_BYTES;
+
+        if (offset + 2 * RECORD_BYTES > journal.capacity()) {
+            journal = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    2L * journal.capacity());
+        }
+        write(journal, (int) offset, operation, day, amountCents, description);
+        numRecords++;
+
+        if (numRecords >= COMPACT_THRESHOLD && ledger != null) {
+            compact(ledger);
+        }
+    }
+
+    /**
+     * Writes the header for the current generation and zeroes every record.
+     */
+    private void resetJournal() {
+        long used = HEADER_BYTES + (long) numRecords * RECORD_BYTES;
+
+        for (long i = HEADER_BYTES; i < used; i += Long.BYTES) {
+            journal.putLong((int) i, 0);
+        }
+        journal.putLong(8, generation);
+        journal.force();
+        numRecords = 0;
+    }
+
+    /**
+     * Applies every record in buffer from start up to an end record or the
+     * end of buffer to the ledger. before is the number of records applied
+     * from earlier buffers, for error messages.
+     *
+     * @return The number of records applied.
+     */
+    private int apply(MappedByteBuffer buffer, int start, long before)
+            throws IOException {
+        byte[] bytes = new byte[MAX_DESCRIPTION_BYTES];
+        int count = 0;
+
+        try {
+            for (int offset = start;
+                 offset + RECORD_BYTES <= buffer.capacity() &&
+                         buffer.get(offset) != END;
+                 offset += RECORD_BYTES) {
+                byte operation = buffer.get(offset);
+                int day = buffer.getInt(offset + 1);
+
+                if (operation == ADD) {
+                    int length = buffer.getShort(offset + 13);
+                    buffer.get(offset + 15, bytes, 0, length);
+                    ledger.addTransaction(new Transaction(day,
+                            buffer.getLong(offset + 5), new String(bytes, 0,
+                            length, StandardCharsets.UTF_8)));
+                } else if (operation == REMOVE) {
+                    ledger.removeTransaction(day);
+                } else {
+                    throw new IOException("Unknown journal record.");
+                }
+                count++;
+            }
+        } catch (InvalidTransactionException |
+                 TransactionAlreadyExistsException |
+                 InvalidLedgerPositionException |
+                 IndexOutOfBoundsException ex) {
+            throw new IOException("Journal record " + (before + count) +
+                    " does not apply to the ledger.", ex);
+        }
+        return count;
+    }
+
+    /**
+     * Writes one record to buffer at offset.
+     */
+    private static void write(MappedByteBuffer buffer, int offset,
+                              byte operation, int day, long amountCents,
+                              String description) {
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length > MAX_DESCRIPTION_BYTES) {
+            throw new IllegalArgumentException(
+                    "Description is too long for a journal record.");
+        }
+        buffer.putInt(offset + 1, day);
+        buffer.putLong(offset + 5, amountCents);
+        buffer.putShort(offset + 13, (short) bytes.length);
+        buffer.put(offset + 15, bytes);
+        buffer.put(offset, operation); //Written last: marks record complete.
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * This class is a read-only view of the consecutive Transactions of a
+ * GeneralLedger whose dates fall in a range. Since the ledger is sorted by
+ * date, the view is found with two O(log n) searches and only reads the
+ * Transactions in the range.
+ *
+ * <p>
+ * The view should not be used after its ledger has been changed.
+ *
+ * @author Emily Tsui
+ */
+
+import java.io.IOException; //If the table can't be written.
+import java.io.StringWriter; //For building the table String.
+import java.io.UncheckedIOException; //If the table can't be written.
+import java.util.Iterator; //For walking the Transactions in the range.
+import java.util.NoSuchElementException; //If the iterator is exhausted.
+
+public class LedgerRange implements Iterable<Transaction> {
+    private LedgerStore ledger;
+    private int first, last; //0-based, last is exclusive.
+
+    /**
+     * This is a Constructor used to create a view of the Transactions of
+     * ledger from index first up to but not including index last.
+     *
+     * @param ledger The store holding the Transactions.
+     * @param first The 0-based index of the first Transaction in the view.
+     * @param last The 0-based index after the last Transaction in the view.
+     */
+    public LedgerRange(LedgerStore ledger, int first, int last) {
+        this.ledger = ledger;
+        this.first = first;
+        this.last = Math.max(first, last);
+    }
+
+    /**
+     * Gets the position in the ledger of the first Transaction in this view.
+     *
+     * @return The 1-based position of the first Transaction in this view.
+     */
+    public int getFirstPosition() {
+        return first + 1;
+    }
+
+    /**
+     * Returns the number of Transactions in this view.
+     *
+     * @return The number of Transactions in this view.
+     */
+    public int size() {
+        return last - first;
+    }
+
+    /**
+     * Checks whether this view has no Transactions.
+     *
+     * @return True if this view is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return last == first;
+    }
+
+    /**
+     * Returns an iterator over the Transactions in this view in date order.
+     *
+     * @return An iterator over this view.
+     */
+    @Override
+    public Iterator<Transaction> iterator() {
+        return new Iterator<Transaction>() {
+            private Iterator<Transaction> inner = ledger.iterator(first);
+            private int remaining = size();
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Transaction next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                return inner.next();
+            }
+        };
+    }
+
+    /**
+     * Returns a String representation of this view, which is a neatly
+     * formatted table of each Transaction with its position in the ledger.
+     *
+     * @return A String representation of this LedgerRange.
+     */
+    @Override
+    public String toString() {
+        StringWriter formatted = new StringWriter();
+
+        try {
+            LedgerRenderer renderer = new LedgerRenderer(formatted);
+            renderer.writeTable(ledger, first, last);
+            renderer.flush();
+        } catch (IOException ex) {
+            //A StringWriter never fails.
+            throw new UncheckedIOException(ex);
+        }
+
+        return formatted.toString();
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * This class writes ledger tables, the same text as GeneralLedger.toString
+ * and LedgerRange.toString, straight to a Writer. Each row is built in a
+ * reusable char buffer with hand-written number formatting instead of
+ * String.format, so printing a ledger of any size creates no Strings or
+ * Formatters per Transaction. Transactions in a ColumnarLedgerStore are read
+ * from its columns without creating Transaction objects.
+ *
+ * @author Emily Tsui
+ */
+
+import java.io.IOException; //If the Writer fails.
+import java.io.Writer; //Where the table is written.
+import java.util.Iterator; //For walking the Transactions to write.
+
+public class LedgerRenderer {
+    public static final String HEADER = String.format(
+            "%-8s%-10s%12s%12s%-5s%-100s",
+            "No.", "Date", "Debit", "Credit", "", "Description");
+    public static final String LINE = "------------------------------------" +
+            "---------------------------------------------------------------";
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_ROW_PREFIX = 80; //Position, date, amounts.
+
+    private Writer out;
+    private char[] buffer;
+    private int length;
+
+    /**
+     * This is a Constructor used to create a LedgerRenderer writing to out.
+     *
+     * @param out The Writer to write tables to.
+     */
+    public LedgerRenderer(Writer out) {
+        this.out = out;
+        buffer = new char[BUFFER_SIZE];
+        length = 0;
+    }
+
+    /**
+     * Writes the header and the Transactions of ledger numbered from 1,
+     * matching GeneralLedger.toString. Nothing follows the last row.
+     *
+     * @param ledger The Transactions to write, in order.
+     *
+     * @throws IOException
+     * Thrown if the Writer fails.
+     */
+    public void writeTable(LedgerStore ledger) throws IOException {
+        writeTable(ledger, 0, ledger.size());
+    }
+
+    /**
+     * Writes the header and the Transactions of ledger from index first up
+     * to but not including index last, numbered by their position in the
+     * ledger, matching LedgerRange.toString. Nothing follows the last row.
+     *
+     * @param ledger The store holding the Transactions.
+     * @param first The 0-based index of the first Transaction to write.
+     * @param last The 0-based index after the last Transaction to write.
+     *
+     * @throws IOException
+     * Thrown if the Writer fails.
+     */
+    public void writeTable(LedgerStore ledger, int first, int last)
+            throws IOException {
+        append(HEADER);
+        append('\n');
+        append(LINE);
+
+        if (ledger instanceof ColumnarLedgerStore) {
+            ColumnarLedgerStore columns = (ColumnarLedgerStore) ledger;
+
+            for (int i = first; i < last; i++) {
+                append('\n');
+                writeRow(i + 1, columns.getDay(i),
+                        columns.getAmountCents(i), columns.getDescription(i));
+            }
+        } else {
+            Iterator<Transaction> transactions = ledger.iterator(first);
+
+            for (int i = first; i < last; i++) {
+                Transaction curr = transactions.next();
+
+                append('\n');
+                writeRow(i + 1, curr.getDay(), curr.getAmountCents(),
+                        curr.getDescription());
+            }
+        }
+    }
+
+    /**
+     * Writes one row of a ledger table, matching the position number
+     * followed by Transaction.toString.
+     *
+     * @param position The position number of the row.
+     * @param day The day number of the Transaction, or -1 if it has none.
+     * @param amountCents The amount of the Transaction, in cents.
+     * @param description The description of the Transaction.
+     *
+     * @throws IOException
+     * Thrown if the Writer fails.
+     */
+    public void writeRow(int position, int day, long amountCents,
+                         String description) throws IOException {
+        if (buffer.length - length < MAX_ROW_PREFIX) {
+            flushBuffer();
+        }
+        int start = length;
+        appendLong(position);
+        pad(start + 8);
+
+        start = length;
+        if (Transaction.validDay(day)) {
+            appendDate(day);
+        }
+        pad(start + 8);
+
+        appendMoney(amountCents > 0 ? amountCents : 0);
+        appendMoney(amountCents < 0 ? -amountCents : 0);
+        pad(length + 5);
+
+        String text = String.valueOf(description);
+        append(text);
+        for (int i = text.length(); i < 20; i++) {
+            append(' ');
+        }
+    }
+
+    /**
+     * Writes s to the table.
+     *
+     * @param s The text to write.
+     *
+     * @throws IOException
+     * Thrown if the Writer fails.
+     */
+    public void append(String s) throws IOException {
+        int done = 0;
+
+        while (done < s.length()) {
+            if (length == buffer.length) {
+                flushBuffer();
+            }
+            int n = Math.min(s.length() - done, buffer.length - length);
+            s.getChars(done, done + n, buffer, length);
+            length += n;
+            done += n;
+        }
+    }
+
+    /**
+     * Writes c to the table.
+     *
+     * @param c The character to write.
+     *
+     * @throws IOException
+     * Thrown if the Writer fails.
+     */
+    public void append(char c) throws IOException {
+        if (length == buffer.length) {
+            flushBuffer();
+        }
+        buffer[length++] = c;
+    }
+
+    /**
+     * Writes everything buffered so far to the Writer and flushes it.
+     *
+     * @throws IOException
+     * Thrown if the Writer fails.
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, length);
+        length = 0;
+    }
+
+    /**
+     * Writes a date as yyyy/mm/dd, like Transaction.formatDate.
+     */
+    private void appendDate(int day) {
+        appendDigits(Transaction.FIRST_YEAR + day / Transaction.DAYS_PER_YEAR,
+                4);
+        buffer[length++] = '/';
+        appendDigits(day % Transaction.DAYS_PER_YEAR /
+                Transaction.DAYS_PER_MONTH + 1, 2);
+        buffer[length++] = '/';
+        appendDigits(day % Transaction.DAYS_PER_MONTH + 1, 2);
+    }
+
+    /**
+     * Writes a non-negative amount of cents as dollars with two decimals,
+     * right-aligned in 12 characters, or 12 spaces if cents is 0.
+     */
+    private void appendMoney(long cents) {
+        if (cents == 0) {
+            pad(length + 12);
+            return;
+        }
+        long dollars = cents / 100;
+        int width = digits(dollars) + 3;
+
+        pad(length + 12 - width);
+        appendLong(dollars);
+        buffer[length++] = '.';
+        appendDigits((int) (cents % 100), 2);
+    }
+
+    /**
+     * Writes a non-negative number with no padding.
+     */
+    private void appendLong(long value) {
+        int n = digits(value);
+
+        for (int i = length + n - 1; i >= length; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += n;
+    }
+
+    /**
+     * Writes a non-negative number with leading zeros to width digits.
+     */
+    private void appendDigits(int value, int width) {
+        for (int i = digits(value); i < width; i++) {
+            buffer[length++] = '0';
+        }
+        appendLong(value);
+    }
+
+    /**
+     * Writes spaces up to index end of the buffer, if it is not there yet.
+     */
+    private void pad(int end) {
+        while (length < end) {
+            buffer[length++] = ' ';
+        }
+    }
+
+    private static int digits(long value) {
+        int n = 1;
+
+        while (value >= 10) {
+            value /= 10;
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * This interface describes how a GeneralLedger stores its Transactions: a
+ * list kept in date order where a new Transaction is placed after every
+ * Transaction with an older or equal date. Indexes are 0-based.
+ *
+ * @author Emily Tsui
+ */
+
+import java.util.Iterator; //For walking the store in date order.
+import java.util.List; //For inserting a batch of Transactions.
+
+public interface LedgerStore extends Iterable<Transaction> {
+    /**
+     * Returns the number of Transactions in this store.
+     *
+     * @return The number of Transactions in this store.
+     */
+    int size();
+
+    /**
+     * Returns the Transaction at index.
+     *
+     * <p>
+     * Precondition:
+     * 0 <= index < size().
+     *
+     * @param index The 0-based index of the Transaction.
+     * @return The Transaction at index.
+     */
+    Transaction get(int index);
+
+    /**
+     * Inserts transaction after every Transaction whose date is older than
+     * or equal to its date.
+     *
+     * @param transaction The Transaction to insert.
+     * @return The 0-based index transaction was inserted at.
+     */
+    int insert(Transaction transaction);
+
+    /**
+     * Inserts every Transaction of sorted, which must be in date order, as if
+     * each had been inserted in turn with insert. Stores merge the whole
+     * batch in one pass when that is cheaper than separate inserts.
+     *
+     * @param sorted The Transactions to insert, in date order.
+     */
+    void insertAll(List<Transaction> sorted);
+
+    /**
+     * Removes the Transaction at index.
+     *
+     * <p>
+     * Precondition:
+     * 0 <= index < size().
+     *
+     * @param index The 0-based index of the Transaction to remove.
+     * @return The removed Transaction.
+     */
+    Transaction remove(int index);
+
+    /**
+     * Returns the index of a Transaction equal to transaction, searching
+     * only the Transactions with the same date.
+     *
+     * @param transaction The Transaction to search for.
+     * @return The 0-based index of transaction, or -1 if it is not found.
+     */
+    int indexOf(Transaction transaction);
+
+    /**
+     * Returns the number of Transactions whose date is older than day,
+     * which is the index of the first Transaction on or after day.
+     *
+     * @param day The day number to search for.
+     * @return The number of Transactions dated before day.
+     */
+    int lowerBound(int day);
+
+    /**
+     * Returns the number of Transactions whose date is older than or equal
+     * to day, which is the index a new Transaction on day is inserted at.
+     *
+     * @param day The day number to search for.
+     * @return The number of Transactions dated on or before day.
+     */
+    int upperBound(int day);
+
+    /**
+     * Returns an iterator over the Transactions of this store in date order,
+     * starting with the Transaction at fromIndex.
+     *
+     * @param fromIndex The 0-based index of the first Transaction returned.
+     * @return An iterator over this store starting at fromIndex.
+     */
+    Iterator<Transaction> iterator(int fromIndex);
+
+    /**
+     * Returns an iterator over the Transactions of this store in date order.
+     *
+     * @return An iterator over this store.
+     */
+    @Override
+    default Iterator<Transaction> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Creates a deep copy of this store of the same kind. Subsequent changes
+     * to the copy will not affect the original and vice versa.
+     *
+     * @return A copy of this store.
+     */
+    LedgerStore copy();
+}
@@ -0,0 +1,105 @@
+/**
+ * This class holds the totals of a group of Transactions: how many there
+ * are and the sums of their debit and credit amounts, as returned by the
+ * report queries of GeneralLedger.
+ *
+ * @author Emily Tsui
+ */
+
+public class LedgerTotals {
+    private int numTransactions;
+    private long debitCents;
+    private long creditCents;
+
+    /**
+     * This is a Constructor used to create a new LedgerTotals object.
+     *
+     * @param numTransactions The number of Transactions in the group.
+     * @param debitCents The sum of the positive amounts, in cents.
+     * @param creditCents The sum of the negative amounts, in cents.
+     */
+    public LedgerTotals(int numTransactions, long debitCents,
+                        long creditCents) {
+        this.numTransactions = numTransactions;
+        this.debitCents = debitCents;
+        this.creditCents = creditCents;
+    }
+
+    /**
+     * Gets the number of Transactions in the group.
+     *
+     * @return The number of Transactions.
+     */
+    public int getNumTransactions() {
+        return numTransactions;
+    }
+
+    /**
+     * Gets the sum of the debit (positive) amounts in the group.
+     *
+     * @return The assets of the group, in cents.
+     */
+    public long getDebitCents() {
+        return debitCents;
+    }
+
+    /**
+     * Gets the sum of the credit (negative) amounts in the group.
+     *
+     * @return The liabilities of the group as a negative amount, in cents.
+     */
+    public long getCreditCents() {
+        return creditCents;
+    }
+
+    /**
+     * Gets the net worth of the group, its debits plus its credits.
+     *
+     * @return The net worth of the group, in cents.
+     */
+    public long getNetCents() {
+        return debitCents + creditCents;
+    }
+
+    /**
+     * Compares this LedgerTotals with another object to check if they are
+     * equal.
+     *
+     * @param obj The object being compared to this LedgerTotals.
+     * @return True if obj is a LedgerTotals with the same totals.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof LedgerTotals) {
+            LedgerTotals totals = (LedgerTotals) obj;
+            return numTransactions == totals.numTransactions &&
+                    debitCents == totals.debitCents &&
+                    creditCents == totals.creditCents;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return The hash code of this LedgerTotals.
+     */
+    @Override
+    public int hashCode() {
+        return (31 * numTransactions + Long.hashCode(debitCents)) * 31 +
+                Long.hashCode(creditCents);
+    }
+
+    /**
+     * Returns a String representation of this LedgerTotals.
+     *
+     * @return The count, assets, liabilities, and net worth in dollars.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d transactions, Assets: $%.2f, " +
+                        "Liabilities: $%.2f, Net Worth: $%.2f",
+                numTransactions, debitCents / 100.0,
+                Math.abs(creditCents) / 100.0, getNetCents() / 100.0);
+    }
+}
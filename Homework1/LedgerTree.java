@@ -0,0 +1,475 @@
+/**
+ * This class implements a balanced (AVL) binary tree of Transactions that is
+ * kept in date order. Every node stores the number of Transactions in its
+ * subtree, so inserting, removing, and looking up the Transaction at a given
+ * position all take O(log n) time and the tree can grow without a fixed cap.
+ *
+ * <p>
+ * Nodes are never changed once created: an insert or remove builds new nodes
+ * along one path and shares the rest of the tree. Copying a tree is therefore
+ * O(1), and the copy and the original only use extra memory for the parts
+ * where they differ. Every node also stores a hash of the sequence of
+ * Transactions in its subtree, so two trees with different contents can
+ * usually be told apart in O(1) time.
+ *
+ * @author Emily Tsui
+ */
+
+import java.util.Iterator; //For walking the tree in date order.
+import java.util.List; //For inserting a batch of Transactions.
+import java.util.NoSuchElementException; //If the iterator is exhausted.
+
+public class LedgerTree implements LedgerStore {
+    private static final long HASH_BASE = 0x9E3779B97F4A7C15L;
+
+    private Node root;
+
+    /**
+     * This class is a single node of the tree holding one Transaction.
+     */
+    private static class Node {
+        private final Transaction transaction;
+        private final Node left, right;
+        private final int height, size;
+        private final long hash; //Sum of hash(t_i) * HASH_BASE^i over subtree.
+        private final long power; //HASH_BASE^size.
+
+        /**
+         * This is a Constructor used to create a new Node.
+         *
+         * @param left The left subtree.
+         * @param transaction The Transaction stored in this node.
+         * @param right The right subtree.
+         */
+        private Node(Node left, Transaction transaction, Node right) {
+            this.transaction = transaction;
+            this.left = left;
+            this.right = right;
+            height = Math.max(height(left), height(right)) + 1;
+            size = size(left) + size(right) + 1;
+            power = power(left) * HASH_BASE * power(right);
+            hash = hash(left) + power(left) *
+                    (transaction.hashCode() + HASH_BASE * hash(right));
+        }
+    }
+
+    /**
+     * This is a Constructor used to create an empty LedgerTree.
+     */
+    public LedgerTree() {
+        root = null;
+    }
+
+    /**
+     * Returns the number of Transactions in this tree.
+     *
+     * @return The number of Transactions in this tree.
+     */
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the Transaction at index (0-based, in date order).
+     *
+     * <p>
+     * Precondition:
+     * 0 <= index < size().
+     *
+     * @param index The 0-based index of the Transaction.
+     * @return The Transaction at index.
+     */
+    @Override
+    public Transaction get(int index) {
+        Node curr = root;
+
+        while (curr != null) {
+            int leftSize = size(curr.left);
+
+            if (index < leftSize) {
+                curr = curr.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                curr = curr.right;
+            } else {
+                return curr.transaction;
+            }
+        }
+        throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    /**
+     * Inserts transaction after every Transaction whose date is older than
+     * or equal to its date.
+     *
+     * @param transaction The Transaction to insert.
+     * @return The 0-based index transaction was inserted at.
+     */
+    @Override
+    public int insert(Transaction transaction) {
+        int index = upperBound(transaction.getDay());
+        root = insert(root, index, transaction);
+        return index;
+    }
+
+    /**
+     * Inserts every Transaction of sorted, which must be in date order, by
+     * splitting the tree around the batch and joining the pieces back
+     * together. This takes O(m log(n / m + 1)) time, so a large batch is
+     * merged in about O(n + m) time and a small one in about O(m log n) time.
+     *
+     * @param sorted The Transactions to insert, in date order.
+     */
+    @Override
+    public void insertAll(List<Transaction> sorted) {
+        Transaction[] batch = sorted.toArray(new Transaction[0]);
+        root = union(root, batch, 0, batch.length);
+    }
+
+    /**
+     * Removes the Transaction at index (0-based, in date order).
+     *
+     * <p>
+     * Precondition:
+     * 0 <= index < size().
+     *
+     * @param index The 0-based index of the Transaction to remove.
+     * @return The removed Transaction.
+     */
+    @Override
+    public Transaction remove(int index) {
+        Transaction removed = get(index);
+        root = remove(root, index);
+        return removed;
+    }
+
+    @Override
+    public int indexOf(Transaction transaction) {
+        int first = lowerBound(transaction.getDay());
+        int last = upperBound(transaction.getDay());
+        Iterator<Transaction> sameDate = iterator(first);
+
+        for (int i = first; i < last; i++) {
+            if (sameDate.next().equals(transaction)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of Transactions whose date is older than day,
+     * which is the index of the first Transaction on or after day.
+     *
+     * @param day The day number to search for.
+     * @return The number of Transactions dated before day.
+     */
+    @Override
+    public int lowerBound(int day) {
+        Node curr = root;
+        int index = 0;
+
+        while (curr != null) {
+            if (day <= curr.transaction.getDay()) {
+                curr = curr.left;
+            } else {
+                index += size(curr.left) + 1;
+                curr = curr.right;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of Transactions whose date is older than or equal
+     * to day, which is the index a new Transaction on day is inserted at.
+     *
+     * @param day The day number to search for.
+     * @return The number of Transactions dated on or before day.
+     */
+    @Override
+    public int upperBound(int day) {
+        Node curr = root;
+        int index = 0;
+
+        while (curr != null) {
+            if (day < curr.transaction.getDay()) {
+                curr = curr.left;
+            } else {
+                index += size(curr.left) + 1;
+                curr = curr.right;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns an iterator over the Transactions of this tree in date order,
+     * starting with the Transaction at fromIndex.
+     *
+     * @param fromIndex The 0-based index of the first Transaction returned.
+     * @return An in-order iterator over this tree starting at fromIndex.
+     */
+    @Override
+    public Iterator<Transaction> iterator(int fromIndex) {
+        return new Iterator<Transaction>() {
+            private Node[] path = new Node[height(root) + 1];
+            private int depth = seek(root, fromIndex);
+
+            /**
+             * Pushes the ancestors of the node at index that are still to be
+             * visited, ending with that node itself.
+             */
+            private int seek(Node node, int index) {
+                int top = 0;
+
+                while (node != null) {
+                    int leftSize = size(node.left);
+
+                    if (index <= leftSize) {
+                        path[top++] = node;
+                        node = node.left;
+                    } else {
+                        index -= leftSize + 1;
+                        node = node.right;
+                    }
+                }
+                return top;
+            }
+
+            /**
+             * Pushes node and its chain of left children onto the path.
+             */
+            private int pushLeft(Node node, int top) {
+                while (node != null) {
+                    path[top++] = node;
+                    node = node.left;
+                }
+                return top;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return depth > 0;
+            }
+
+            @Override
+            public Transaction next() {
+                if (depth == 0) {
+                    throw new NoSuchElementException();
+                }
+                Node node = path[--depth];
+                depth = pushLeft(node.right, depth);
+                return node.transaction;
+            }
+        };
+    }
+
+    /**
+     * Creates a copy of this tree in O(1) time by sharing its nodes, which
+     * never change. Subsequent changes to the copy will not affect the
+     * original and vice versa.
+     *
+     * @return A copy of this LedgerTree.
+     */
+    @Override
+    public LedgerStore copy() {
+        LedgerTree copy = new LedgerTree();
+        copy.root = root;
+        return copy;
+    }
+
+    /**
+     * Checks whether other holds equal Transactions in the same order. Trees
+     * that share their root, such as an unchanged copy, are equal in O(1)
+     * time, and trees whose sequence hashes differ are unequal in O(1) time.
+     *
+     * @param other The LedgerTree to compare with.
+     * @return True if both trees hold the same sequence of Transactions.
+     */
+    public boolean sameSequence(LedgerTree other) {
+        if (root == other.root) {
+            return true;
+        }
+        if (size() != other.size() || hash(root) != hash(other.root)) {
+            return false;
+        }
+        Iterator<Transaction> otherIterator = other.iterator();
+
+        for (Transaction curr : this) {
+            if (!curr.equals(otherIterator.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a subtree holding the Transactions of node with batch[from] up
+     * to but not including batch[to] inserted.
+     */
+    private static Node union(Node node, Transaction[] batch, int from,
+                              int to) {
+        if (from >= to) {
+            return node;
+        }
+        if (node == null) {
+            return build(batch, from, to);
+        }
+        int mid = (from + to) >>> 1;
+        Node[] parts = split(node, batch[mid].getDay());
+
+        return join(union(parts[0], batch, from, mid), batch[mid],
+                union(parts[1], batch, mid + 1, to));
+    }
+
+    /**
+     * Splits the subtree rooted at node into the Transactions dated on or
+     * before day and the Transactions dated after day.
+     *
+     * @return The two subtrees, older Transactions first.
+     */
+    private static Node[] split(Node node, int day) {
+        if (node == null) {
+            return new Node[2];
+        }
+        Node[] parts;
+
+        if (day < node.transaction.getDay()) {
+            parts = split(node.left, day);
+            parts[1] = join(parts[1], node.transaction, node.right);
+        } else {
+            parts = split(node.right, day);
+            parts[0] = join(node.left, node.transaction, parts[0]);
+        }
+        return parts;
+    }
+
+    /**
+     * Returns a balanced subtree holding the Transactions of left, then
+     * transaction, then the Transactions of right.
+     */
+    private static Node join(Node left, Transaction transaction, Node right) {
+        if (height(left) > height(right) + 1) {
+            return balance(left.left, left.transaction,
+                    join(left.right, transaction, right));
+        }
+        if (height(right) > height(left) + 1) {
+            return balance(join(left, transaction, right.left),
+                    right.transaction, right.right);
+        }
+        return new Node(left, transaction, right);
+    }
+
+    /**
+     * Builds a balanced subtree holding transactions[from] up to but not
+     * including transactions[to].
+     */
+    private static Node build(Transaction[] transactions, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+
+        return new Node(build(transactions, from, mid), transactions[mid],
+                build(transactions, mid + 1, to));
+    }
+
+    /**
+     * Returns a copy of the subtree rooted at node with transaction inserted
+     * at index.
+     */
+    private static Node insert(Node node, int index, Transaction transaction) {
+        if (node == null) {
+            return new Node(null, transaction, null);
+        }
+        int leftSize = size(node.left);
+
+        if (index <= leftSize) {
+            return balance(insert(node.left, index, transaction),
+                    node.transaction, node.right);
+        }
+        return balance(node.left, node.transaction,
+                insert(node.right, index - leftSize - 1, transaction));
+    }
+
+    /**
+     * Returns a copy of the subtree rooted at node without the node at index.
+     */
+    private static Node remove(Node node, int index) {
+        int leftSize = size(node.left);
+
+        if (index < leftSize) {
+            return balance(remove(node.left, index), node.transaction,
+                    node.right);
+        }
+        if (index > leftSize) {
+            return balance(node.left, node.transaction,
+                    remove(node.right, index - leftSize - 1));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node successor = node.right;
+
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(node.left, successor.transaction,
+                remove(node.right, 0));
+    }
+
+    /**
+     * Builds a node from left, transaction, and right, rotating so that the
+     * result is AVL balanced when the heights of left and right differ by at
+     * most two.
+     */
+    private static Node balance(Node left, Transaction transaction,
+                                Node right) {
+        int balance = height(left) - height(right);
+
+        if (balance > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node(left.left, left.transaction,
+                        new Node(left.right, transaction, right));
+            }
+            Node pivot = left.right;
+            return new Node(
+                    new Node(left.left, left.transaction, pivot.left),
+                    pivot.transaction,
+                    new Node(pivot.right, transaction, right));
+        }
+        if (balance < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node(new Node(left, transaction, right.left),
+                        right.transaction, right.right);
+            }
+            Node pivot = right.left;
+            return new Node(
+                    new Node(left, transaction, pivot.left),
+                    pivot.transaction,
+                    new Node(pivot.right, right.transaction, right.right));
+        }
+        return new Node(left, transaction, right);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static long hash(Node node) {
+        return node == null ? 0 : node.hash;
+    }
+
+    private static long power(Node node) {
+        return node == null ? 1 : node.power;
+    }
+}
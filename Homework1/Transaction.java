@@ -1,20 +1,36 @@
 /**
  * This class represents a financial transaction,
  * containing details like the date, amount, and description of the transaction.
+ * The date is stored as a day number and the amount as a whole number of
+ * cents, so Transactions compare with integer comparisons and totals are
+ * exact. Repeated descriptions are looked up in a small cache so that they
+ * usually share one String.
  *
  * @author Emily Tsui
  */
 public class Transaction {
-    private String date;
-    private double amount;
+    public static final int FIRST_YEAR = 1900;
+    public static final int LAST_YEAR = 2050;
+    public static final int DAYS_PER_MONTH = 30;
+    public static final int DAYS_PER_YEAR = 12 * DAYS_PER_MONTH;
+    public static final int NUM_DAYS = (LAST_YEAR - FIRST_YEAR + 1) *
+            DAYS_PER_YEAR; //Number of valid day numbers.
+    //Largest amount allowed; every cent up to it is exact in a double.
+    public static final long MAX_AMOUNT_CENTS = 1_000_000_000_000_000L;
+
+    private static final String[] DESCRIPTION_CACHE = new String[4096];
+
+    private int day; //Days since 1900/01/01, -1 if there is no date.
+    private long amountCents;
     private String description;
+    private int hash; //Cached hashCode, since Transactions never change.
 
     /**
      * This is a Constructor used to create a new Transaction object.
      */
     public Transaction(){
-        date = "";
-        amount = 0;
+        day = -1;
+        amountCents = 0;
         description = "";
     }
 
@@ -30,7 +46,8 @@ public class Transaction {
      * The description of what this transaction is.
      *
      * @throws InvalidTransactionException
-     * Thrown if the date is invalid or amount is 0.
+     * Thrown if the date is invalid, or amount is 0, not a finite number, or
+     * larger than MAX_AMOUNT_CENTS in cents.
      * The date must be inputted  in yyyy/mm/dd format,
      * year must be between 1900 and 2050 inclusive,
      * the month must be between 1 and 12 inclusive,
@@ -38,22 +55,170 @@ public class Transaction {
      */
     public Transaction(String date, double amount, String description)
             throws InvalidTransactionException {
-        if(!validDate(date)){
+        this(parseDate(date), toCents(amount), description);
+    }
+
+    /**
+     * This is a Constructor used to create a new Transaction object from its
+     * packed day number and amount in cents.
+     *
+     * @param day
+     * The date of the transaction as a day number (see parseDate).
+     * @param amountCents
+     * The change in cash as a result of this transaction, in cents.
+     * @param description
+     * The description of what this transaction is.
+     *
+     * @throws InvalidTransactionException
+     * Thrown if the day number is out of range, or amountCents is 0 or
+     * larger than MAX_AMOUNT_CENTS.
+     */
+    public Transaction(int day, long amountCents, String description)
+            throws InvalidTransactionException {
+        if(!validDay(day)){
             throw new InvalidTransactionException("Date is invalid.");
         }
-        if(amount == 0){
+        if(amountCents == 0){
             throw new InvalidTransactionException(
                     "Transaction amount cannot be 0.");
         }
+        else if(amountCents > MAX_AMOUNT_CENTS
+                || amountCents < -MAX_AMOUNT_CENTS){
+            throw new InvalidTransactionException(
+                    "Transaction amount is out of range.");
+        }
         else{
-            this.date = date;
-            this.amount = amount;
-            this.description = description;
+            this.day = day;
+            this.amountCents = amountCents;
+            this.description = shareDescription(description);
+            this.hash = 31 * (31 * day + Long.hashCode(amountCents))
+                    + this.description.hashCode();
+        }
+    }
+
+    /**
+     * Converts an amount of money to a whole number of cents.
+     *
+     * @param amount
+     * The amount to convert.
+     *
+     * @return
+     * The amount in cents, rounded to the nearest cent.
+     *
+     * @throws InvalidTransactionException
+     * Thrown if amount is infinite, NaN, or larger than MAX_AMOUNT_CENTS in
+     * cents, since Math.round would quietly clamp or zero it.
+     */
+    private static long toCents(double amount)
+            throws InvalidTransactionException {
+        if(!Double.isFinite(amount)
+                || Math.abs(amount * 100) > MAX_AMOUNT_CENTS){
+            throw new InvalidTransactionException(
+                    "Transaction amount is out of range.");
+        }
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Returns an equal description that an earlier Transaction already uses
+     * if one is in the cache, otherwise caches description. Unlike
+     * String.intern this takes O(1) time and never holds more than a fixed
+     * number of Strings.
+     *
+     * @param description
+     * The description of a transaction.
+     *
+     * @return
+     * A String equal to description.
+     */
+    private static String shareDescription(String description){
+        int slot = description.hashCode() & (DESCRIPTION_CACHE.length - 1);
+        String cached = DESCRIPTION_CACHE[slot];
+
+        if(description.equals(cached)){
+            return cached;
+        }
+        DESCRIPTION_CACHE[slot] = description;
+        return description;
+    }
+
+    /**
+     * Converts a date in yyyy/mm/dd format to its day number, the number of
+     * days since 1900/01/01 when every month has 30 days.
+     *
+     * @param date
+     * The date to convert.
+     *
+     * @return
+     * The day number of date, or -1 if date is not a valid date.
+     */
+    public static int parseDate(String date){
+        int[] fields = new int[3];
+        int field = 0;
+        int digits = 0;
+
+        for(int i = 0; i < date.length(); i++){
+            char ch = date.charAt(i);
+
+            if(ch == '/' && digits > 0 && field < 2){
+                field++;
+                digits = 0;
+            }else if(ch >= '0' && ch <= '9' && digits < 4){
+                fields[field] = fields[field] * 10 + (ch - '0');
+                digits++;
+            }else{
+                return -1;
+            }
+        }
+
+        int year = fields[0];
+        int month = fields[1];
+        int dayOfMonth = fields[2];
+
+        if(field != 2 || digits == 0
+                || !(year >= FIRST_YEAR && year <= LAST_YEAR)
+                || !(month >= 1 && month <= 12)
+                || !(dayOfMonth >= 1 && dayOfMonth <= DAYS_PER_MONTH)){
+            return -1;
         }
+        return (year - FIRST_YEAR) * DAYS_PER_YEAR
+                + (month - 1) * DAYS_PER_MONTH + dayOfMonth - 1;
     }
 
     /**
-     * Checks to see if the is valid.
+     * Converts a day number back to a date in yyyy/mm/dd format.
+     *
+     * @param day
+     * The day number to convert.
+     *
+     * @return
+     * The date as a String, or an empty String if day is not valid.
+     */
+    public static String formatDate(int day){
+        if(!validDay(day)){
+            return "";
+        }
+        return String.format("%04d/%02d/%02d",
+                FIRST_YEAR + day / DAYS_PER_YEAR,
+                day % DAYS_PER_YEAR / DAYS_PER_MONTH + 1,
+                day % DAYS_PER_MONTH + 1);
+    }
+
+    /**
+     * Checks to see if the day number is valid.
+     *
+     * @param day
+     * The day number of the transaction.
+     *
+     * @return
+     * True if day is between 0 and NUM_DAYS - 1, false otherwise.
+     */
+    public static boolean validDay(int day){
+        return day >= 0 && day < NUM_DAYS;
+    }
+
+    /**
+     * Checks to see if the date is valid.
      * The date must be inputted in yyyy/mm/dd format,
      * year must be between 1900 and 2050 inclusive,
      * the month must be between 1 and 12 inclusive,
@@ -66,19 +231,7 @@ public class Transaction {
      * True if the date is valid, false otherwise.
      */
     public static boolean validDate(String date){
-        String[] dateArr = date.split("/");
-
-        if(dateArr.length != 3){
-            return false;
-        }else{
-            int year = Integer.parseInt(dateArr[0]);
-            int month = Integer.parseInt(dateArr[1]);
-            int day = Integer.parseInt(dateArr[2]);
-
-            return (year >= 1900 && year <= 2050)
-                    && (month >= 1 &&  month <= 12) && (day >= 1 && day <= 30);
-        }
-
+        return parseDate(date) != -1;
     }
 
     /**
@@ -88,7 +241,17 @@ public class Transaction {
      * The date of the transaction as a String in yyyyy/mm/dd format.
      */
     public String getDate() {
-        return date;
+        return formatDate(day);
+    }
+
+    /**
+     * Gets the date of this transaction as a day number.
+     *
+     * @return
+     * The number of days between 1900/01/01 and the date of the transaction.
+     */
+    public int getDay() {
+        return day;
     }
 
     /**
@@ -98,7 +261,17 @@ public class Transaction {
      * The amount of the transaction as a double.
      */
     public double getAmount() {
-        return amount;
+        return amountCents / 100.0;
+    }
+
+    /**
+     * Gets the amount of this transaction in cents.
+     *
+     * @return
+     * The amount of the transaction as a whole number of cents.
+     */
+    public long getAmountCents() {
+        return amountCents;
     }
 
     /**
@@ -122,7 +295,7 @@ public class Transaction {
     public Object clone() {
         try{
             Transaction copy = new Transaction(
-                    this.date, this.amount, this.description);
+                    this.day, this.amountCents, this.description);
             return copy;
         }catch (InvalidTransactionException ex){
             System.out.println(ex + "Can't clone Transaction.");
@@ -144,13 +317,25 @@ public class Transaction {
     public boolean equals(Object obj) {
         if (obj instanceof Transaction){
             Transaction t = (Transaction) obj;
-            return this.date.equals(t.date) && this.amount == t.amount
+            return this.day == t.day && this.amountCents == t.amountCents
                     && this.description.equals(t.description);
         }else{
             return false;
         }
     }
 
+    /**
+     * Returns a hash code for this Transaction that is consistent with
+     * equals, so Transactions can be kept in hash-based collections.
+     *
+     * @return
+     * A hash code built from the date, amount, and description.
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
     /**
      * Returns a String representation of this Transaction object,
      * which includes it's information of date, debit/credit, and description.
@@ -161,17 +346,17 @@ public class Transaction {
     @Override
     public String toString(){
         double debit = 0;
-        if(this.amount > 0){
-            debit = this.amount;
+        if(this.amountCents > 0){
+            debit = this.getAmount();
         }
 
         double credit = 0;
-        if (this.getAmount() < 0) {
-            credit = Math.abs(this.amount);
+        if (this.amountCents < 0) {
+            credit = Math.abs(this.getAmount());
         }
 
         return String.format("%-8s%12s%12s%-5s%-20s",
-                this.date,
+                this.getDate(),
                 (debit > 0) ? String.format("%.2f", debit) : "",
                 (credit > 0) ? String.format("%.2f", credit) : "",
                 "", this.description);
@@ -0,0 +1,282 @@
+/**
+ * This class is a set of Transactions that a GeneralLedger uses to answer
+ * duplicate checks in O(1) expected time. It is a hash array mapped trie:
+ * each level of the trie is chosen by the next BITS bits of a Transaction's
+ * hash, and each node keeps only the slots it uses, packed in order, with a
+ * bitmap of which ones they are. Transactions whose whole hashes are equal
+ * share a node at the bottom that is searched in order.
+ *
+ * <p>
+ * The trie is persistent: a copy shares every node with the original in
+ * O(1) time. Each node records which TransactionIndex may change it in
+ * place, and a shared node is copied (along with the path to it) the first
+ * time either one changes it, so adding or removing still takes
+ * O(log n / BITS) time, which is at most 7 levels.
+ *
+ * @author Emily Tsui
+ */
+
+import java.util.Arrays; //For growing and shrinking the slot arrays.
+
+public class TransactionIndex {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private Object owner; //Marks the nodes this index may change.
+    private Node root;
+    private int size;
+
+    /**
+     * This is a Constructor used to create an empty TransactionIndex.
+     */
+    public TransactionIndex() {
+        owner = new Object();
+        root = new Node(owner, 0, new Object[0]);
+    }
+
+    /**
+     * Gets the number of Transactions in this index.
+     *
+     * @return The number of Transactions as an int.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether an equal Transaction is in this index.
+     *
+     * @param transaction The Transaction to look for.
+     * @return True if an equal Transaction is in this index.
+     */
+    public boolean contains(Transaction transaction) {
+        int hash = spread(transaction.hashCode());
+        Node node = root;
+
+        for (int shift = 0; ; shift += BITS) {
+            if (shift >= Integer.SIZE) {
+                return node.indexOf(transaction) >= 0;
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+
+            if ((node.bitmap & bit) == 0) {
+                return false;
+            }
+            Object slot = node.slots[node.position(bit)];
+
+            if (!(slot instanceof Node)) {
+                return slot.equals(transaction);
+            }
+            node = (Node) slot;
+        }
+    }
+
+    /**
+     * Adds transaction to this index if no equal Transaction is in it.
+     *
+     * @param transaction The Transaction to add.
+     * @return True if transaction was added, false if it was already in.
+     */
+    public boolean add(Transaction transaction) {
+        int before = size;
+
+        root = add(root, transaction, spread(transaction.hashCode()), 0);
+        return size != before;
+    }
+
+    /**
+     * Removes the Transaction equal to transaction from this index.
+     *
+     * @param transaction The Transaction to remove.
+     * @return True if it was removed, false if it was not in this index.
+     */
+    public boolean remove(Transaction transaction) {
+        if (!contains(transaction)) {
+            return false;
+        }
+        root = remove(root, transaction, spread(transaction.hashCode()), 0);
+        if (root == null) {
+            root = new Node(owner, 0, new Object[0]);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Creates a copy of this index in O(1) time by sharing its nodes.
+     * Subsequent changes to the copy will not affect the original and vice
+     * versa.
+     *
+     * @return A copy of this TransactionIndex.
+     */
+    public TransactionIndex copy() {
+        TransactionIndex copy = new TransactionIndex();
+
+        copy.root = root;
+        copy.size = size;
+        owner = new Object(); //The shared nodes now belong to neither.
+        return copy;
+    }
+
+    /**
+     * Adds transaction below node, which is at depth shift / BITS, and
+     * returns the node to use in its place.
+     */
+    private Node add(Node node, Transaction transaction, int hash,
+                     int shift) {
+        if (shift >= Integer.SIZE) {
+            if (node.indexOf(transaction) >= 0) {
+                return node;
+            }
+            node = own(node);
+            node.slots = Arrays.copyOf(node.slots, node.slots.length + 1);
+            node.slots[node.slots.length - 1] = transaction;
+            size++;
+            return node;
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int position = node.position(bit);
+
+        if ((node.bitmap & bit) == 0) {
+            node = own(node);
+            node.insert(bit, position, transaction);
+            size++;
+            return node;
+        }
+        Object slot = node.slots[position];
+
+        if (slot instanceof Node) {
+            Node child = add((Node) slot, transaction, hash, shift + BITS);
+
+            if (child != slot) {
+                node = own(node);
+                node.slots[position] = child;
+            }
+            return node;
+        }
+        if (slot.equals(transaction)) {
+            return node;
+        }
+        //Push the Transaction already here down a level, next to the new one.
+        Transaction other = (Transaction) slot;
+        Node child = add(new Node(owner, 0, new Object[0]), other,
+                spread(other.hashCode()), shift + BITS);
+
+        size--; //other was already counted.
+        child = add(child, transaction, hash, shift + BITS);
+        node = own(node);
+        node.slots[position] = child;
+        return node;
+    }
+
+    /**
+     * Removes transaction, which is below node at depth shift / BITS, and
+     * returns the node to use in its place, or null if it is left empty.
+     */
+    private Node remove(Node node, Transaction transaction, int hash,
+                        int shift) {
+        node = own(node);
+
+        if (shift >= Integer.SIZE) {
+            int index = node.indexOf(transaction);
+            Object[] slots = new Object[node.slots.length - 1];
+
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            System.arraycopy(node.slots, index + 1, slots, index,
+                    slots.length - index);
+            node.slots = slots;
+            return slots.length == 0 ? null : node;
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int position = node.position(bit);
+        Object slot = node.slots[position];
+
+        if (slot instanceof Node) {
+            Node child = remove((Node) slot, transaction, hash,
+                    shift + BITS);
+
+            if (child != null) {
+                node.slots[position] = child;
+                return node;
+            }
+        }
+        node.delete(bit, position);
+        return node.bitmap == 0 ? null : node;
+    }
+
+    /**
+     * Returns node if this index may change it, or else a copy that it may.
+     */
+    private Node own(Node node) {
+        if (node.owner == owner) {
+            return node;
+        }
+        return new Node(owner, node.bitmap, node.slots.clone());
+    }
+
+    /**
+     * Mixes the high bits of hash into the low bits, which pick the first
+     * levels of the trie.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * A trie node holding a Transaction or a child node in each slot whose
+     * bit is set in bitmap. At the bottom, below every bit of the hash,
+     * bitmap is 0 and slots holds Transactions with equal hashes.
+     */
+    private static class Node {
+        private Object owner;
+        private int bitmap;
+        private Object[] slots;
+
+        private Node(Object owner, int bitmap, Object[] slots) {
+            this.owner = owner;
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        /**
+         * Returns the position in slots of the slot for bit.
+         */
+        private int position(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        /**
+         * Returns the position in slots of the Transaction equal to
+         * transaction, or -1 if there is none. Only for bottom nodes.
+         */
+        private int indexOf(Transaction transaction) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i].equals(transaction)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void insert(int bit, int position, Object slot) {
+            Object[] grown = new Object[slots.length + 1];
+
+            System.arraycopy(slots, 0, grown, 0, position);
+            grown[position] = slot;
+            System.arraycopy(slots, position, grown, position + 1,
+                    slots.length - position);
+            slots = grown;
+            bitmap |= bit;
+        }
+
+        private void delete(int bit, int position) {
+            Object[] shrunk = new Object[slots.length - 1];
+
+            System.arraycopy(slots, 0, shrunk, 0, position);
+            System.arraycopy(slots, position + 1, shrunk, position,
+                    shrunk.length - position);
+            slots = shrunk;
+            bitmap &= ~bit;
+        }
+    }
+}
@@ -0,0 +1,578 @@
+/**
+ * This class is a thread-safe station for several dispatchers adding and
+ * removing Trains at once. Every Track is guarded by its own lock, so
+ * dispatchers working on different tracks never wait for each other, and
+ * train numbers are kept unique across the station in a concurrent map
+ * that is only claimed once a Train is sure to fit in its track.
+ *
+ * <p>
+ * Instead of one shared selected Track and Train, each dispatcher opens a
+ * Session with its own selection, so moving through a track in one session
+ * doesn't move anyone else. Tracks are added and removed under a station
+ * lock. The station has a clock that new tracks start at, and
+ * advanceClock, getNumTrains and snapshot hold the station lock and every
+ * track lock at once, so they change or see the whole station at a single
+ * instant. They stop every dispatcher while they run.
+ *
+ * <p>
+ * Every method is linearizable: it behaves as if it happened at a single
+ * instant between when it was called and when it returned.
+ *
+ * @author Emily Tsui
+ */
+import java.util.ArrayList; //For the tracks locked at once.
+import java.util.concurrent.ConcurrentHashMap; //For tracks and train index.
+import java.util.concurrent.ConcurrentSkipListMap; //For tracks in order.
+import java.util.concurrent.locks.ReentrantLock; //For the track locks.
+
+public class ConcurrentStation {
+    private ConcurrentSkipListMap<Integer, LockedTrack> tracks;
+    private ConcurrentHashMap<Integer, LockedTrack> tracksByTrain;
+    private ReentrantLock stationLock; //Held to add or remove tracks.
+    private volatile int clock; //Only written under every lock.
+
+    /**
+     * This is a Constructor used to create a new ConcurrentStation with no
+     * tracks.
+     */
+    public ConcurrentStation() {
+        tracks = new ConcurrentSkipListMap<>();
+        tracksByTrain = new ConcurrentHashMap<>();
+        stationLock = new ReentrantLock();
+    }
+
+    /**
+     * Gets the number of tracks in this station.
+     *
+     * @return The number of tracks in this station as an int.
+     */
+    public int getNumTracks() {
+        return tracks.size();
+    }
+
+    /**
+     * Gets the number of Trains in this station, counted with every track
+     * locked.
+     *
+     * @return The number of Trains in all tracks as an int.
+     */
+    public int getNumTrains() {
+        ArrayList<LockedTrack> locked = lockAll();
+        int numTrains = 0;
+
+        try {
+            for (LockedTrack t : locked) {
+                numTrains += t.track.getNumTrains();
+            }
+        } finally {
+            unlockAll(locked);
+        }
+        return numTrains;
+    }
+
+    /**
+     * Gets the time of this station's clock. New tracks start at it.
+     *
+     * @return The clock in minutes after midnight of the first day.
+     */
+    public int getClock() {
+        return clock;
+    }
+
+    /**
+     * Adds a new empty Track with trackNumber to this station, with its
+     * clock at the station's.
+     *
+     * @param trackNumber
+     * The track number of the new Track.
+     *
+     * @throws TrackAlreadyExistsException
+     * Thrown if there is already a Track with trackNumber in this station.
+     */
+    public void addTrack(int trackNumber) throws TrackAlreadyExistsException {
+        stationLock.lock();
+        try {
+            Track track = new Track(trackNumber);
+
+            track.advanceClock(clock);
+            if (tracks.putIfAbsent(trackNumber,
+                    new LockedTrack(track)) != null) {
+                throw new TrackAlreadyExistsException("Track already exists " +
+                        "in station.");
+            }
+        } finally {
+            stationLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the Track with trackNumber and all of its Trains from this
+     * station.
+     *
+     * @param trackNumber
+     * The track number of the Track to remove.
+     *
+     * @return
+     * True if the Track was removed, false if there was no such Track.
+     */
+    public boolean removeTrack(int trackNumber) {
+        stationLock.lock();
+        try {
+            LockedTrack locked = tracks.get(trackNumber);
+
+            if (locked == null) {
+                return false;
+            }
+            locked.lock.lock();
+            try {
+                locked.removed = true;
+                tracks.remove(trackNumber);
+                for (Train train : locked.track.getTrains()) {
+                    tracksByTrain.remove(train.getTrainNumber());
+                }
+            } finally {
+                locked.lock.unlock();
+            }
+            return true;
+        } finally {
+            stationLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the clock of this station and every Track in it forward to
+     * minute, removing the Trains that have departed by then. Every track is
+     * locked until all of them have moved.
+     *
+     * @param minute
+     * The new time in minutes after midnight of the first day.
+     *
+     * @return
+     * The number of Trains that departed.
+     */
+    public int advanceClock(int minute) {
+        ArrayList<LockedTrack> locked = lockAll();
+        int expired = 0;
+
+        try {
+            for (LockedTrack t : locked) {
+                //The Trains that depart are at the front of the list.
+                for (Train train : t.track.getTrains()) {
+                    if (train.getArrivalMinute() >= minute ||
+                            train.getDepartureMinute() > minute) {
+                        break;
+                    }
+                    tracksByTrain.remove(train.getTrainNumber(), t);
+                }
+                expired += t.track.advanceClock(minute);
+            }
+            clock = Math.max(clock, minute);
+        } finally {
+            unlockAll(locked);
+        }
+        return expired;
+    }
+
+    /**
+     * Adds newTrain to the Track with trackNumber.
+     *
+     * @param trackNumber
+     * The track number of the Track to add to.
+     * @param newTrain
+     * The new Train, which must not be in any other track.
+     *
+     * @throws InvalidTrainException
+     * Thrown if the train arrives before the track's clock.
+     * @throws TrainAlreadyExistsException
+     * Thrown if there is already a train in this station with the same
+     * train number as newTrain.
+     * @throws TrainTimeConflictException
+     * Thrown if newTrain is scheduled for the same time as another train in
+     * the track.
+     * @throws IllegalArgumentException
+     * Thrown if there is no Track with trackNumber in this station.
+     */
+    public void addTrain(int trackNumber, Train newTrain)
+            throws InvalidTrainException, TrainAlreadyExistsException,
+            TrainTimeConflictException {
+        add(findLockedTrack(trackNumber), newTrain);
+    }
+
+    /**
+     * Removes the Train with trainNumber from whichever Track it is on.
+     *
+     * @param trainNumber
+     * The train number of the Train to remove.
+     *
+     * @return
+     * A reference to the removed Train, or null if there is no such Train.
+     */
+    public Train removeTrain(int trainNumber) {
+        while (true) {
+            LockedTrack locked = tracksByTrain.get(trainNumber);
+
+            if (locked == null) {
+                return null;
+            }
+            locked.lock.lock();
+            try {
+                //The Train may have been removed before the lock was taken.
+                if (!locked.removed &&
+                        locked.track.getTrain(trainNumber) != null) {
+                    return remove(locked, trainNumber);
+                }
+            } finally {
+                locked.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Checks whether there is a Train with trainNumber in this station.
+     *
+     * @param trainNumber
+     * The train number to look for.
+     *
+     * @return
+     * True if a Train with trainNumber is in some track, false otherwise.
+     */
+    public boolean containsTrain(int trainNumber) {
+        return tracksByTrain.containsKey(trainNumber);
+    }
+
+    /**
+     * Copies every Track and Train of this station, as they all were at the
+     * same instant, into a new Station.
+     *
+     * @return
+     * A Station that can be read and changed without affecting this one.
+     */
+    public Station snapshot() {
+        ArrayList<LockedTrack> locked = lockAll();
+        ArrayList<Train[]> trains = new ArrayList<>();
+        ArrayList<Integer> clocks = new ArrayList<>();
+        int stationClock;
+
+        try {
+            for (LockedTrack t : locked) {
+                trains.add(t.track.getTrains().toArray(new Train[0]));
+                clocks.add(t.track.getClock());
+            }
+            stationClock = clock;
+        } finally {
+            unlockAll(locked);
+        }
+
+        Station copy = new Station();
+
+        try {
+            for (int i = 0; i < locked.size(); i++) {
+                Track source = locked.get(i).track;
+                Track track = new Track(source.getTrackNumber(),
+                        source.getStorage());
+
+                //Trains still here arrived before the clock, so the clock
+                //is set once they are all in.
+                for (Train train : trains.get(i)) {
+                    track.addTrain(new Train(train.getTrainNumber(),
+                            train.getDestination(),
+                            train.getArrivalMinute() / Train.MINUTES_PER_DAY,
+                            Train.toClockTime(train.getArrivalMinute()),
+                            train.getTransferTime()));
+                }
+                track.advanceClock(clocks.get(i));
+                copy.addTrack(track);
+            }
+            copy.advanceClock(stationClock);
+        } catch (InvalidTrainException | TrainAlreadyExistsException |
+                 TrainTimeConflictException | TrackAlreadyExistsException ex) {
+            //The copies are of a valid station.
+            throw new IllegalStateException(ex);
+        }
+        return copy;
+    }
+
+    /**
+     * Opens a new Session with nothing selected.
+     *
+     * @return A Session for one dispatcher to use.
+     */
+    public Session openSession() {
+        return new Session();
+    }
+
+    /**
+     * Takes the station lock and then the lock of every Track, in order of
+     * track number, and returns the Tracks that were locked.
+     */
+    private ArrayList<LockedTrack> lockAll() {
+        ArrayList<LockedTrack> locked = new ArrayList<>();
+
+        stationLock.lock();
+        for (LockedTrack t : tracks.values()) {
+            t.lock.lock();
+            locked.add(t);
+        }
+        return locked;
+    }
+
+    /**
+     * Releases the locks taken by lockAll.
+     */
+    private void unlockAll(ArrayList<LockedTrack> locked) {
+        for (LockedTrack t : locked) {
+            t.lock.unlock();
+        }
+        stationLock.unlock();
+    }
+
+    /**
+     * Returns the Track with trackNumber, which may be removed before it is
+     * locked.
+     */
+    private LockedTrack findLockedTrack(int trackNumber) {
+        LockedTrack locked = tracks.get(trackNumber);
+
+        if (locked == null) {
+            throw new IllegalArgumentException("Track " + trackNumber +
+                    " does not exist in station.");
+        }
+        return locked;
+    }
+
+    /**
+     * Adds newTrain to the track of locked, claiming its train number only
+     * once nothing else can go wrong.
+     */
+    private void add(LockedTrack locked, Train newTrain)
+            throws InvalidTrainException, TrainAlreadyExistsException,
+            TrainTimeConflictException {
+        locked.lock.lock();
+        try {
+            if (locked.removed) {
+                throw new IllegalArgumentException("Track " +
+                        locked.track.getTrackNumber() + " does not exist " +
+                        "in station.");
+            }
+            if (newTrain.getArrivalMinute() < locked.track.getClock()) {
+                throw new InvalidTrainException("Invalid arrival time.");
+            }
+            if (locked.track.exists(newTrain)) {
+                throw new TrainAlreadyExistsException("Train already " +
+                        "exists in track.");
+            }
+            if (locked.track.timeConflict(newTrain)) {
+                throw new TrainTimeConflictException("Train time conflicts " +
+                        "with another train in the track.");
+            }
+            if (tracksByTrain.putIfAbsent(newTrain.getTrainNumber(),
+                    locked) != null) {
+                throw new TrainAlreadyExistsException("Train already " +
+                        "exists in station.");
+            }
+            locked.track.addTrain(newTrain);
+        } finally {
+            locked.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the Train with trainNumber from the track of locked, whose
+     * lock is held.
+     */
+    private Train remove(LockedTrack locked, int trainNumber) {
+        Train removed = locked.track.removeTrain(trainNumber);
+
+        tracksByTrain.remove(trainNumber);
+        return removed;
+    }
+
+    /**
+     * A Track with the lock that guards it.
+     */
+    private static class LockedTrack {
+        private Track track;
+        private ReentrantLock lock;
+        private boolean removed; //Only read or written under lock.
+
+        private LockedTrack(Track track) {
+            this.track = track;
+            lock = new ReentrantLock();
+        }
+    }
+
+    /**
+     * This class is one dispatcher's view of a ConcurrentStation, with its
+     * own selected Track and Train. A Session should be used by one thread
+     * at a time. If another session removes the selected Train or Track,
+     * this session has nothing selected from then on.
+     */
+    public class Session {
+        private LockedTrack selectedTrack;
+        private Train selectedTrain;
+
+        private Session() {
+        }
+
+        /**
+         * Selects the Track with trackNumber and no Train.
+         *
+         * @param trackToSelect
+         * The track number of the Track to select.
+         *
+         * @return
+         * True if the Track was selected, false if there is no such Track,
+         * in which case the selection stays the same.
+         */
+        public boolean selectTrack(int trackToSelect) {
+            LockedTrack locked = tracks.get(trackToSelect);
+
+            if (locked == null) {
+                return false;
+            }
+            selectedTrack = locked;
+            selectedTrain = null;
+            return true;
+        }
+
+        /**
+         * Gets the selected Train.
+         *
+         * @return
+         * The selected Train, or null if there is none or it has been
+         * removed.
+         */
+        public Train getSelectedTrain() {
+            if (selectedTrack == null || selectedTrain == null) {
+                return null;
+            }
+            selectedTrack.lock.lock();
+            try {
+                return isSelectedTrainThere() ? selectedTrain : null;
+            } finally {
+                selectedTrack.lock.unlock();
+            }
+        }
+
+        /**
+         * Adds newTrain to the selected Track and selects it.
+         *
+         * @param newTrain
+         * The new Train, which must not be in any other track.
+         *
+         * @throws InvalidTrainException
+         * Thrown if the train arrives before the track's clock.
+         * @throws TrainAlreadyExistsException
+         * Thrown if there is already a train in the station with the same
+         * train number as newTrain.
+         * @throws TrainTimeConflictException
+         * Thrown if newTrain is scheduled for the same time as another
+         * train in the track.
+         * @throws IllegalStateException
+         * Thrown if there is no selected Track or it has been removed.
+         */
+        public void addTrain(Train newTrain) throws InvalidTrainException,
+                TrainAlreadyExistsException, TrainTimeConflictException {
+            if (selectedTrack == null) {
+                throw new IllegalStateException("There is no selected " +
+                        "Track.");
+            }
+            try {
+                add(selectedTrack, newTrain);
+            } catch (IllegalArgumentException ex) {
+                selectedTrack = null;
+                selectedTrain = null;
+                throw new IllegalStateException("The selected Track has " +
+                        "been removed.", ex);
+            }
+            selectedTrain = newTrain;
+        }
+
+        /**
+         * Moves the selected Train to the next Train in its track.
+         *
+         * @return
+         * True if the selected Train moved, false if it is the last one.
+         *
+         * @throws NoSelectedTrainException
+         * Thrown if there is no selected Train or it has been removed.
+         */
+        public boolean selectNextTrain() throws NoSelectedTrainException {
+            return move(true);
+        }
+
+        /**
+         * Moves the selected Train to the previous Train in its track.
+         *
+         * @return
+         * True if the selected Train moved, false if it is the first one.
+         *
+         * @throws NoSelectedTrainException
+         * Thrown if there is no selected Train or it has been removed.
+         */
+        public boolean selectPrevTrain() throws NoSelectedTrainException {
+            return move(false);
+        }
+
+        /**
+         * Removes the selected Train from its track. The selected Train is
+         * then the one after it, or the one before it if it was the last.
+         *
+         * @return
+         * A reference to the removed Train, or null if there is no selected
+         * Train or it has already been removed.
+         */
+        public Train removeSelectedTrain() {
+            if (selectedTrack == null || selectedTrain == null) {
+                return null;
+            }
+            selectedTrack.lock.lock();
+            try {
+                if (!isSelectedTrainThere()) {
+                    selectedTrain = null;
+                    return null;
+                }
+                Train removed = selectedTrain;
+
+                selectedTrain = removed.getNext() != null ?
+                        removed.getNext() : removed.getPrev();
+                return remove(selectedTrack, removed.getTrainNumber());
+            } finally {
+                selectedTrack.lock.unlock();
+            }
+        }
+
+        private boolean move(boolean forward) throws NoSelectedTrainException {
+            if (selectedTrack == null || selectedTrain == null) {
+                throw new NoSelectedTrainException();
+            }
+            selectedTrack.lock.lock();
+            try {
+                if (!isSelectedTrainThere()) {
+                    selectedTrain = null;
+                    throw new NoSelectedTrainException("The selected Train " +
+                            "has been removed.");
+                }
+                Train to = forward ? selectedTrain.getNext() :
+                        selectedTrain.getPrev();
+
+                if (to == null) {
+                    return false;
+                }
+                selectedTrain = to;
+                return true;
+            } finally {
+                selectedTrack.lock.unlock();
+            }
+        }
+
+        /**
+         * Checks, with the selected Track locked, that the selected Train is
+         * still in it.
+         */
+        private boolean isSelectedTrainThere() {
+            return !selectedTrack.removed && selectedTrack.track.getTrain(
+                    selectedTrain.getTrainNumber()) == selectedTrain;
+        }
+    }
+}
@@ -4,14 +4,32 @@
  * It also contains the main method that allows the user to interact with the
  * Trains in the Tracks.
  *
+ * <p>
+ * Alongside the list, the Tracks are indexed by track number in a hash map,
+ * so selecting a Track and checking whether one exists take O(1) time, and
+ * in a sorted map, so a new Track finds its place in the list in O(log n)
+ * time. Every Train in the station is indexed by train number too, so train
+ * numbers are unique across the whole station and the Track a Train is on
+ * is found in O(1) time.
+ *
  * @author Emily Tsui
  */
 import java.util.Scanner; //For user input.
 import java.util.InputMismatchException; //If there's a wrong data type input.
+import java.io.IOException; //If a timetable or saved station can't be read.
+import java.util.Collection; //For the Tracks of this station.
+import java.util.Collections; //For a read-only view of the Tracks.
+import java.util.HashMap; //For finding Tracks by track number.
+import java.util.Map; //For entries of the sorted index.
+import java.util.TreeMap; //For finding where a new Track goes.
 
 public class Station {
     private Track head, tail, cursor;
     private int numTracks;
+    private HashMap<Integer, Track> tracksByNumber;
+    private TreeMap<Integer, Track> sortedTracks; //Same order as the list.
+    private HashMap<Integer, Track> tracksByTrain; //Keyed by train number.
+    private int clock; //The latest clock of any Track.
 
     /**
      * This is a Constructor used to create a new Station object.
@@ -20,6 +38,9 @@ public class Station {
         head = null;
         tail = null;
         cursor = null;
+        tracksByNumber = new HashMap<>();
+        sortedTracks = new TreeMap<>();
+        tracksByTrain = new HashMap<>();
     }
 
     /**
@@ -50,22 +71,32 @@ public class Station {
      * @throws TrackAlreadyExistsException
      * Thrown if there is already a Track object in this Station with
      * the same track number as newTrack.
+     * @throws IllegalArgumentException
+     * Thrown if newTrack is in another Station or has a Train with the same
+     * train number as a Train already in this Station.
      */
     public void addTrack(Track newTrack) throws TrackAlreadyExistsException {
         if (this.exists(newTrack)) {
             throw new TrackAlreadyExistsException("Track already exists in " +
                     "station.");
+        } else if (newTrack.getStation() != null) {
+            throw new IllegalArgumentException("Track is in another station.");
         } else {
+            for (Train train : newTrack.getTrains()) {
+                if (tracksByTrain.containsKey(train.getTrainNumber())) {
+                    throw new IllegalArgumentException("Train " +
+                            train.getTrainNumber() + " already exists in " +
+                            "station.");
+                }
+            }
+
             if (cursor == null) {
                 head = newTrack;
                 tail = newTrack;
             } else {
-                Track curr = tail;
-
-                while (curr != null && newTrack.getTrackNumber() <
-                        curr.getTrackNumber()) {
-                    curr = curr.getPrev();
-                }
+                Map.Entry<Integer, Track> before = sortedTracks.lowerEntry(
+                        newTrack.getTrackNumber());
+                Track curr = before == null ? null : before.getValue();
 
                 if (curr == null) {
                     newTrack.setNext(head);
@@ -89,6 +120,13 @@ public class Station {
                 }
             }
             cursor = newTrack;
+            tracksByNumber.put(newTrack.getTrackNumber(), newTrack);
+            sortedTracks.put(newTrack.getTrackNumber(), newTrack);
+            for (Train train : newTrack.getTrains()) {
+                tracksByTrain.put(train.getTrainNumber(), newTrack);
+            }
+            newTrack.setStation(this);
+            clock = Math.max(clock, newTrack.getClock());
             numTracks++;
         }
     }
@@ -127,12 +165,21 @@ public class Station {
                 cursor = head;
             } else if (currNext == null) {
                 tail = currPrev;
+                tail.setNext(null);
                 cursor = currPrev;
             } else {
                 currPrev.setNext(currNext);
                 currNext.setPrev(currPrev);
                 cursor = currNext;
             }
+            trackToRemove.setNext(null);
+            trackToRemove.setPrev(null);
+            tracksByNumber.remove(trackToRemove.getTrackNumber());
+            sortedTracks.remove(trackToRemove.getTrackNumber());
+            for (Train train : trackToRemove.getTrains()) {
+                tracksByTrain.remove(train.getTrainNumber());
+            }
+            trackToRemove.setStation(null);
 
             numTracks--;
 
@@ -140,6 +187,108 @@ public class Station {
         }
     }
 
+    /**
+     * Gets the Tracks in this station in order of track number.
+     *
+     * @return A read-only view of the Tracks in this station.
+     */
+    public Collection<Track> getTracks() {
+        return Collections.unmodifiableCollection(sortedTracks.values());
+    }
+
+    /**
+     * Gets the Track in this station with trackNumber.
+     *
+     * @param trackNumber
+     * The track number to look for.
+     *
+     * @return
+     * The Track with trackNumber, or null if it is not in this station.
+     */
+    public Track getTrack(int trackNumber) {
+        return tracksByNumber.get(trackNumber);
+    }
+
+    /**
+     * Finds the Track that the Train with trainNumber is on.
+     *
+     * @param trainNumber
+     * The train number to look for.
+     *
+     * @return
+     * The Track with that Train, or null if no Track in this Station has it.
+     */
+    public Track findTrack(int trainNumber) {
+        return tracksByTrain.get(trainNumber);
+    }
+
+    /**
+     * Finds the Train with trainNumber in any Track of this Station.
+     *
+     * @param trainNumber
+     * The train number to look for.
+     *
+     * @return
+     * The Train with trainNumber, or null if no Track in this Station has it.
+     */
+    public Train findTrain(int trainNumber) {
+        Track track = tracksByTrain.get(trainNumber);
+
+        return track == null ? null : track.getTrain(trainNumber);
+    }
+
+    /**
+     * Moves the clock of every Track in this Station forward to minute,
+     * removing the Trains that have departed by then.
+     *
+     * @param minute
+     * The new time in minutes after midnight of the first day.
+     *
+     * @return
+     * The number of Trains that departed.
+     */
+    public int advanceClock(int minute) {
+        int expired = 0;
+
+        for (Track curr = head; curr != null; curr = curr.getNext()) {
+            expired += curr.advanceClock(minute);
+        }
+        clock = Math.max(clock, minute);
+        return expired;
+    }
+
+    /**
+     * Gets the time of this Station's clock, which is the latest clock of
+     * any Track that has been in it. New Trains should not arrive before it.
+     *
+     * @return
+     * The clock in minutes after midnight of the first day.
+     */
+    public int getClock() {
+        return clock;
+    }
+
+    /**
+     * Records that the clock of a Track in this Station moved to minute.
+     */
+    void clockAdvanced(int minute) {
+        clock = Math.max(clock, minute);
+    }
+
+    /**
+     * Records that train was added to track, which is in this Station.
+     */
+    void trainAdded(Track track, Train train) {
+        tracksByTrain.put(train.getTrainNumber(), track);
+    }
+
+    /**
+     * Records that train was removed from a Track in this Station.
+     */
+    void trainRemoved(Train train) {
+        tracksByTrain.remove(train.getTrainNumber());
+    }
+
     /**
      * Prints the selected Track list.
      */
@@ -166,7 +315,8 @@ public class Station {
     /**
      * Prints station information including number of tracks and details
      * about each track including track number, number of trains arriving,
-     * and utilization rate of that track.
+     * and utilization rate of that track, followed by the busiest hour of
+     * the station and the most trains at the station at once.
      */
     public void printStationInformation() {
         Track curr = head;
@@ -180,6 +330,20 @@ public class Station {
                     "% Utilization Rate)");
             curr = curr.getNext();
         }
+
+        StationAnalytics analytics = new StationAnalytics(this);
+        int peakHour = analytics.getPeakHour();
+        int peakStart = analytics.getDay() * Train.MINUTES_PER_DAY +
+                peakHour * 60;
+        long peakMinutes = analytics.getTrainMinutes(peakStart,
+                peakStart + 60);
+
+        System.out.println("Busiest hour: " + String.format(
+                "%02d00 - %02d00", peakHour, (peakHour + 1) % 24) + " (" +
+                peakMinutes + " train-minutes)");
+        System.out.println("Most trains at once: " +
+                analytics.getMaxOccupancy() + " at " +
+                Train.formatTime(analytics.getPeakMinute()));
     }
 
     /**
@@ -194,13 +358,11 @@ public class Station {
      *
      */
     public boolean selectTrack(int trackToSelect) {
-        Track curr = head;
-        while (curr != null) {
-            if (curr.getTrackNumber() == trackToSelect) {
-                cursor = curr;
-                return true;
-            }
-            curr = curr.getNext();
+        Track track = tracksByNumber.get(trackToSelect);
+
+        if (track != null) {
+            cursor = track;
+            return true;
         }
         return false;
     }
@@ -226,14 +388,7 @@ public class Station {
             throw new IllegalArgumentException("Track is not a valid Track " +
                     "object.");
         } else {
-            Track curr = head;
-            while (curr != null) {
-                if (curr.getTrackNumber() == track.getTrackNumber()) {
-                    return true;
-                }
-                curr = curr.getNext();
-            }
-            return false;
+            return tracksByNumber.containsKey(track.getTrackNumber());
         }
     }
 
@@ -272,6 +427,30 @@ public class Station {
         return formatted.toString();
     }
 
+    /**
+     * Reads the day a Train arrives on (or the clock moves to) from stdin,
+     * where a blank line means the day the clock is on.
+     *
+     * @param stdin
+     * Where the user's input is read from.
+     * @param clock
+     * The station's clock in minutes after midnight of the first day.
+     *
+     * @return
+     * The day that was entered, starting from 0.
+     *
+     * @throws NumberFormatException
+     * Thrown if the line is not blank and not a number.
+     */
+    private static int readDay(Scanner stdin, int clock) {
+        int today = clock / Train.MINUTES_PER_DAY;
+
+        System.out.print("Enter day (blank for day " + today + "): ");
+        String line = stdin.nextLine().trim();
+
+        return line.isEmpty() ? today : Integer.parseInt(line);
+    }
+
     /**
      * The main method runs a menu-driven application.
      * The program prompts the user for a command to execute an operation.
@@ -309,6 +488,20 @@ public class Station {
             System.out.printf("| %-75s |%n", "Station Options");
             System.out.printf("| %5s %-69s |%n",
                     "SI.", "Print Station Information");
+            System.out.printf("| %5s %-69s |%n",
+                    "SF.", "Find Train by number");
+            System.out.printf("| %5s %-69s |%n",
+                    "SA.", "Add new Train to the earliest free Track");
+            System.out.printf("| %5s %-69s |%n",
+                    "SW.", "Find first free window on any Track");
+            System.out.printf("| %5s %-69s |%n",
+                    "SC.", "Advance the clock");
+            System.out.printf("| %5s %-69s |%n",
+                    "SL.", "Load timetable file");
+            System.out.printf("| %5s %-69s |%n",
+                    "SS.", "Save Station to file");
+            System.out.printf("| %5s %-69s |%n",
+                    "SR.", "Restore Station from file");
             System.out.printf("| %5s %-69s |%n", "Q.", "Quit");
             System.out.println("|--------------------------------------------" +
                     "---------------------------------|\n");
@@ -327,6 +520,8 @@ public class Station {
                         System.out.print("Enter train destination: ");
                         destination = stdin.nextLine();
 
+                        int day = readDay(stdin, station.getClock());
+
                         System.out.print("Enter train arrival time: ");
                         arrivalTime = stdin.nextInt();
                         stdin.nextLine();
@@ -336,7 +531,7 @@ public class Station {
                         stdin.nextLine();
 
                         Train newTrain = new Train(trainNumber, destination,
-                                arrivalTime, transferTime);
+                                day, arrivalTime, transferTime);
 
                         if (station.cursor != null) {
                             station.cursor.addTrain(newTrain);
@@ -351,6 +546,9 @@ public class Station {
                         System.out.println("\nPlease enter a valid " +
                                 "number.\n");
                         stdin.nextLine();
+                    } catch (NumberFormatException ex) {
+                        System.out.println("\nPlease enter a valid " +
+                                "number.\n");
                     } catch (TrainAlreadyExistsException ex) {
                         System.out.println("\n" + ex);
                         System.out.println("Train not added: " +
@@ -358,7 +556,8 @@ public class Station {
                     } catch (InvalidTrainException ex) {
                         System.out.println("\n" + ex);
                         System.out.println("Train not added: " +
-                                "Invalid arrival time.\n");
+                                "Invalid arrival or transfer time, or it " +
+                                "arrives before the clock.\n");
                     } catch (TrainTimeConflictException ex) {
                         System.out.println("\n" + ex);
                         System.out.println("Train not added: " +
@@ -512,6 +711,199 @@ public class Station {
                         System.out.println("\nNo tracks in station.\n");
                     }
                     break;
+                case "SA": //Add new Train to the earliest free Track
+                    try {
+                        System.out.print("\nEnter train number: ");
+                        trainNumber = stdin.nextInt();
+                        stdin.nextLine();
+
+                        System.out.print("Enter train destination: ");
+                        destination = stdin.nextLine();
+
+                        int day = readDay(stdin, station.getClock());
+
+                        System.out.print("Enter train arrival time: ");
+                        arrivalTime = stdin.nextInt();
+                        stdin.nextLine();
+
+                        System.out.print("Enter train transfer time: ");
+                        transferTime = stdin.nextInt();
+                        stdin.nextLine();
+
+                        Track assigned = new TrackScheduler(station).assign(
+                                new Train(trainNumber, destination, day,
+                                        arrivalTime, transferTime));
+                        station.selectTrack(assigned.getTrackNumber());
+
+                        System.out.println("\nTrain No. " + trainNumber +
+                                " to " + destination + " added to Track " +
+                                assigned.getTrackNumber() + ".\n");
+                    } catch (InputMismatchException ex) {
+                        System.out.println("\nPlease enter a valid " +
+                                "number.\n");
+                        stdin.nextLine();
+                    } catch (NumberFormatException ex) {
+                        System.out.println("\nPlease enter a valid " +
+                                "number.\n");
+                    } catch (TrainAlreadyExistsException ex) {
+                        System.out.println("\n" + ex);
+                        System.out.println("Train not added: " +
+                                "There is already a Train with that number!\n");
+                    } catch (InvalidTrainException ex) {
+                        System.out.println("\n" + ex);
+                        System.out.println("Train not added: " +
+                                "Invalid arrival or transfer time, or it " +
+                                "arrives before the clock.\n");
+                    }
+                    break;
+                case "SF": //Find the Track a Train is on
+                    try {
+                        System.out.print("\nEnter train number: ");
+                        trainNumber = stdin.nextInt();
+                        stdin.nextLine();
+
+                        Track foundTrack = station.findTrack(trainNumber);
+
+                        if (foundTrack != null) {
+                            System.out.println("\nTrain No. " + trainNumber +
+                                    " is on Track " +
+                                    foundTrack.getTrackNumber() + ".\n");
+                        } else {
+                            System.out.println("\nTrain No. " + trainNumber +
+                                    " is not in the station.\n");
+                        }
+                    } catch (InputMismatchException ex) {
+                        System.out.println("\nPlease enter a valid " +
+                                "number.\n");
+                        stdin.nextLine();
+                    }
+                    break;
+                case "SW": //Find the first free window on any Track
+                    try {
+                        System.out.print("\nEnter earliest arrival time: ");
+                        arrivalTime = stdin.nextInt();
+                        stdin.nextLine();
+
+                        System.out.print("Enter transfer time: ");
+                        transferTime = stdin.nextInt();
+                        stdin.nextLine();
+
+                        if (!Train.validTime(arrivalTime) ||
+                                transferTime < 0 ||
+                                transferTime > Train.MAX_TRANSFER_TIME) {
+                            System.out.println("\nInvalid arrival or " +
+                                    "transfer time.\n");
+                            break;
+                        }
+
+                        StationAnalytics analytics =
+                                new StationAnalytics(station);
+                        int after = analytics.getDay() *
+                                Train.MINUTES_PER_DAY +
+                                Train.toMinutes(arrivalTime);
+                        int window = analytics.findFreeWindow(after,
+                                transferTime);
+
+                        if (window != -1) {
+                            System.out.println("\nTrack " + analytics
+                                    .findFreeTrack(after, transferTime)
+                                    .getTrackNumber() + " is free from " +
+                                    Train.formatTime(window) + " for " +
+                                    transferTime + " minutes.\n");
+                        } else {
+                            System.out.println("\nNo track is free for " +
+                                    transferTime + " minutes.\n");
+                        }
+                    } catch (InputMismatchException ex) {
+                        System.out.println("\nPlease enter a valid " +
+                                "number.\n");
+                        stdin.nextLine();
+                    }
+                    break;
+                case "SC": //Move the clock forward, removing departed Trains
+                    try {
+                        System.out.println("\nThe clock is at " +
+                                Train.formatTime(station.getClock()) + ".");
+                        int day = readDay(stdin, station.getClock());
+
+                        System.out.print("Enter time: ");
+                        int time = stdin.nextInt();
+                        stdin.nextLine();
+
+                        if (!Train.validTime(time) || day < 0 ||
+                                day >= Integer.MAX_VALUE /
+                                        Train.MINUTES_PER_DAY - 1) {
+                            System.out.println("\nInvalid day or time.\n");
+                            break;
+                        }
+                        int minute = day * Train.MINUTES_PER_DAY +
+                                Train.toMinutes(time);
+
+                        if (minute <= station.getClock()) {
+                            System.out.println("\nClock not moved: The " +
+                                    "clock is already at or past " +
+                                    Train.formatTime(minute) + ".\n");
+                            break;
+                        }
+                        int departed = station.advanceClock(minute);
+
+                        System.out.println("\nThe clock is now at " +
+                                Train.formatTime(minute) + ". " + departed +
+                                " trains departed.\n");
+                    } catch (InputMismatchException ex) {
+                        System.out.println("\nPlease enter a valid " +
+                                "number.\n");
+                        stdin.nextLine();
+                    } catch (NumberFormatException ex) {
+                        System.out.println("\nPlease enter a valid " +
+                                "number.\n");
+                    }
+                    break;
+                case "SL": //Load Trains from a timetable file
+                    System.out.print("\nEnter timetable file: ");
+                    String timetableFile = stdin.nextLine();
+
+                    try {
+                        TimetableImporter importer =
+                                new TimetableImporter(station);
+
+                        importer.importFile(timetableFile);
+                        System.out.println("\nLoaded " +
+                                importer.getNumAdded() + " of " +
+                                importer.getNumRows() + " trains (" +
+                                importer.getNumInvalid() + " invalid, " +
+                                importer.getNumRejected() + " rejected).\n");
+                    } catch (IOException ex) {
+                        System.out.println("\nTimetable not loaded: " +
+                                ex.getMessage() + "\n");
+                    }
+                    break;
+                case "SS": //Save the Station to a file
+                    System.out.print("\nEnter file to save to: ");
+                    String saveFile = stdin.nextLine();
+
+                    try {
+                        StationSnapshot.save(station, saveFile);
+                        System.out.println("\nStation saved to " + saveFile +
+                                ".\n");
+                    } catch (IOException ex) {
+                        System.out.println("\nStation not saved: " +
+                                ex.getMessage() + "\n");
+                    }
+                    break;
+                case "SR": //Replace the Station with one saved to a file
+                    System.out.print("\nEnter file to restore from: ");
+                    String restoreFile = stdin.nextLine();
+
+                    try {
+                        station = StationSnapshot.restore(restoreFile);
+                        System.out.println("\nStation restored from " +
+                                restoreFile + ".\n");
+                    } catch (IOException ex) {
+                        System.out.println("\nStation not restored: " +
+                                ex.getMessage() + "\n");
+                    }
+                    break;
                 case "Q": //Terminates the program.
                     System.out.println("\nProgram terminating normally...");
                     done = true;
@@ -0,0 +1,370 @@
+/**
+ * This class answers questions about how busy a Station is: how many Trains
+ * are at the station in each minute, which hour is the busiest, and where
+ * the next free window on any track is. All times are minutes after
+ * midnight of the first day (see Train.getArrivalMinute); the figures for
+ * a single day are for the day the station's clock is in.
+ *
+ * <p>
+ * Everything is worked out once when the object is created, in O(n log n)
+ * time for n Trains: the number of Trains at the station only changes when
+ * one arrives or departs, so a sweep over the sorted arrivals and
+ * departures gives the number of Trains in each segment between two of
+ * those times, and prefix sums over the segments give the train-minutes in
+ * any range in O(log n) time. Memory depends only on the number of Trains,
+ * not on how far ahead they depart. The free gaps between the Trains of
+ * every track, sorted by start time, answer free window queries in O(log g)
+ * time for g gaps. The analytics describe the station when they were
+ * created; create new ones after it changes.
+ *
+ * @author Emily Tsui
+ */
+import java.util.ArrayList; //For collecting the gaps between Trains.
+import java.util.Arrays; //For sorting the arrivals and departures.
+import java.util.Comparator; //For sorting the gaps by start time.
+
+public class StationAnalytics {
+    //counts[i] Trains are at the station from times[i] until times[i + 1],
+    //and none before times[0] or from the last time on.
+    private int[] times, counts;
+    private long[] trainMinutesBefore; //Train-minutes before times[i].
+    private int peakMinute, maxOccupancy;
+    private int clock; //The station's clock when these were created.
+
+    //Free gaps on every track sorted by start; a gap that never ends has an
+    //end of Integer.MAX_VALUE.
+    private int[] gapStarts, gapEnds;
+    private Track[] gapTracks;
+    private int[] maxEndUpTo; //Index of the latest-ending gap in 0..i.
+    private int[] longestFrom; //Segment tree of the longest gap in a range.
+    private int treeSize;
+
+    /**
+     * This is a Constructor used to create the analytics of station.
+     *
+     * @param station The Station to describe.
+     */
+    public StationAnalytics(Station station) {
+        ArrayList<int[]> gaps = new ArrayList<>(); //{start, end, track}
+        ArrayList<Track> tracks = new ArrayList<>(station.getTracks());
+        int numTrains = 0;
+
+        clock = station.getClock();
+
+        for (Track track : tracks) {
+            numTrains += track.getNumTrains();
+        }
+
+        int[] arrivals = new int[numTrains];
+        int[] departures = new int[numTrains];
+        int n = 0;
+
+        for (int t = 0; t < tracks.size(); t++) {
+            //Departures are in order, so the gaps are too.
+            int free = tracks.get(t).getClock();
+
+            for (Train train : tracks.get(t).getTrains()) {
+                arrivals[n] = train.getArrivalMinute();
+                departures[n++] = train.getDepartureMinute();
+                gaps.add(new int[] {free, train.getArrivalMinute(), t});
+                free = train.getDepartureMinute();
+            }
+            gaps.add(new int[] {free, Integer.MAX_VALUE, t});
+        }
+        Arrays.sort(arrivals);
+        Arrays.sort(departures);
+
+        times = new int[2 * numTrains];
+        counts = new int[2 * numTrains];
+        int numTimes = 0;
+        int count = 0;
+
+        for (int a = 0, d = 0; a < numTrains || d < numTrains; numTimes++) {
+            int time = d == numTrains || a < numTrains &&
+                    arrivals[a] < departures[d] ? arrivals[a] : departures[d];
+
+            while (a < numTrains && arrivals[a] == time) {
+                count++;
+                a++;
+            }
+            while (d < numTrains && departures[d] == time) {
+                count--;
+                d++;
+            }
+            times[numTimes] = time;
+            counts[numTimes] = count;
+        }
+        times = Arrays.copyOf(times, numTimes);
+        counts = Arrays.copyOf(counts, numTimes);
+
+        trainMinutesBefore = new long[numTimes];
+        peakMinute = maxOccupancy = 0;
+        for (int i = 0; i < numTimes; i++) {
+            if (i > 0) {
+                trainMinutesBefore[i] = trainMinutesBefore[i - 1] +
+                        (long) counts[i - 1] * (times[i] - times[i - 1]);
+            }
+            if (counts[i] > maxOccupancy) {
+                maxOccupancy = counts[i];
+                peakMinute = times[i];
+            }
+        }
+
+        gaps.sort(Comparator.comparingInt((int[] gap) -> gap[0]));
+        gapStarts = new int[gaps.size()];
+        gapEnds = new int[gaps.size()];
+        gapTracks = new Track[gaps.size()];
+        maxEndUpTo = new int[gaps.size()];
+
+        for (int i = 0; i < gaps.size(); i++) {
+            gapStarts[i] = gaps.get(i)[0];
+            gapEnds[i] = gaps.get(i)[1];
+            gapTracks[i] = tracks.get(gaps.get(i)[2]);
+            maxEndUpTo[i] = i > 0 && gapEnds[maxEndUpTo[i - 1]] >= gapEnds[i] ?
+                    maxEndUpTo[i - 1] : i;
+        }
+
+        treeSize = 1;
+        while (treeSize < gaps.size()) {
+            treeSize *= 2;
+        }
+        longestFrom = new int[2 * treeSize];
+        for (int i = 0; i < gaps.size(); i++) {
+            longestFrom[treeSize + i] = (int) Math.min(Integer.MAX_VALUE,
+                    (long) gapEnds[i] - gapStarts[i]);
+        }
+        for (int i = treeSize - 1; i > 0; i--) {
+            longestFrom[i] = Math.max(longestFrom[2 * i],
+                    longestFrom[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Gets the number of Trains at the station during a minute.
+     *
+     * @param minute The minute after midnight.
+     *
+     * @return The number of Trains that have arrived by minute and depart
+     * after it.
+     */
+    public int getOccupancy(int minute) {
+        int i = segmentOf(minute);
+
+        return i < 0 ? 0 : counts[i];
+    }
+
+    /**
+     * Gets the station's clock when these analytics were created.
+     *
+     * @return The clock in minutes after midnight of the first day.
+     */
+    public int getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the day the station's clock is in, which the figures for a
+     * single day describe.
+     *
+     * @return The day, starting from 0.
+     */
+    public int getDay() {
+        return clock / Train.MINUTES_PER_DAY;
+    }
+
+    /**
+     * Gets the number of Trains at the station in every minute of the day
+     * the clock is in.
+     *
+     * @return An array of 1440 counts, one per minute after midnight.
+     */
+    public int[] getOccupancyByMinute() {
+        int[] day = new int[Train.MINUTES_PER_DAY];
+        int dayStart = getDay() * Train.MINUTES_PER_DAY;
+        int i = segmentOf(dayStart);
+
+        for (int m = 0; m < day.length; m++) {
+            while (i + 1 < times.length && times[i + 1] <= dayStart + m) {
+                i++;
+            }
+            day[m] = i < 0 ? 0 : counts[i];
+        }
+        return day;
+    }
+
+    /**
+     * Gets the total time Trains spend at the station from minute from up to
+     * but not including minute to.
+     *
+     * @param from The first minute of the range.
+     * @param to The minute after the range.
+     *
+     * @return The sum of the occupancy of each minute in the range.
+     */
+    public long getTrainMinutes(int from, int to) {
+        return to <= from ? 0 : trainMinutesUntil(to) -
+                trainMinutesUntil(from);
+    }
+
+    /**
+     * Gets the hour (0 - 23) of the day the clock is in in which Trains
+     * spend the most time at the station.
+     *
+     * @return The busiest hour, the earliest one if there is a tie.
+     */
+    public int getPeakHour() {
+        int dayStart = getDay() * Train.MINUTES_PER_DAY;
+        int peak = 0;
+
+        for (int hour = 1; hour < 24; hour++) {
+            if (getTrainMinutes(dayStart + hour * 60, dayStart + hour * 60 +
+                    60) > getTrainMinutes(dayStart + peak * 60,
+                    dayStart + peak * 60 + 60)) {
+                peak = hour;
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Gets the first minute at which the most Trains are at the station.
+     *
+     * @return The minute with the highest occupancy.
+     */
+    public int getPeakMinute() {
+        return peakMinute;
+    }
+
+    /**
+     * Gets the most Trains at the station at the same time, which is the
+     * fewest tracks that could hold them all.
+     *
+     * @return The highest occupancy of any minute.
+     */
+    public int getMaxOccupancy() {
+        return maxOccupancy;
+    }
+
+    /**
+     * Finds the earliest time from after onwards at which some track is free
+     * for length minutes, so a Train arriving then with that transfer time
+     * could be added to it.
+     *
+     * @param after The earliest arrival minute to consider.
+     * @param length The number of minutes the track must be free.
+     *
+     * @return The earliest arrival minute that fits, or -1 if there is none
+     * (the station has no tracks).
+     */
+    public int findFreeWindow(int after, int length) {
+        int i = findFreeGap(after, length);
+
+        return i == -1 ? -1 : Math.max(after, gapStarts[i]);
+    }
+
+    /**
+     * Finds the track that is free at the time found by findFreeWindow.
+     *
+     * @param after The earliest arrival minute to consider.
+     * @param length The number of minutes the track must be free.
+     *
+     * @return The Track that is free, or null if there is none.
+     */
+    public Track findFreeTrack(int after, int length) {
+        int i = findFreeGap(after, length);
+
+        return i == -1 ? null : gapTracks[i];
+    }
+
+    /**
+     * Returns the index of the last segment starting at or before minute,
+     * or -1 if there is none.
+     */
+    private int segmentOf(int minute) {
+        int low = 0;
+        int high = times.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (times[mid] <= minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Returns the train-minutes at the station before minute.
+     */
+    private long trainMinutesUntil(int minute) {
+        int i = segmentOf(minute);
+
+        return i < 0 ? 0 : trainMinutesBefore[i] +
+                (long) counts[i] * (minute - times[i]);
+    }
+
+    /**
+     * Returns the index of the gap holding the earliest window, or -1.
+     */
+    private int findFreeGap(int after, int length) {
+        after = Math.max(after, 0);
+        length = Math.max(length, 0);
+
+        //A gap that started before after fits if it ends late enough.
+        int started = upperBound(after) - 1;
+
+        if (started >= 0 && (long) gapEnds[maxEndUpTo[started]] - after >=
+                length) {
+            return maxEndUpTo[started];
+        }
+
+        //Otherwise the first later gap that is long enough.
+        return firstLongGap(started + 1, length);
+    }
+
+    /**
+     * Returns the number of gaps starting at or before minute.
+     */
+    private int upperBound(int minute) {
+        int low = 0;
+        int high = gapStarts.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (gapStarts[mid] <= minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first gap at index from or later at least length minutes
+     * long, or -1, by descending the segment tree.
+     */
+    private int firstLongGap(int from, int length) {
+        return firstLongGap(1, 0, treeSize, from, length);
+    }
+
+    private int firstLongGap(int node, int low, int high, int from,
+                             int length) {
+        if (high <= from || longestFrom[node] < length ||
+                low >= gapStarts.length) {
+            return -1;
+        }
+        if (high - low == 1) {
+            return low;
+        }
+        int mid = (low + high) >>> 1;
+        int found = firstLongGap(2 * node, low, mid, from, length);
+
+        return found != -1 ? found :
+                firstLongGap(2 * node + 1, mid, high, from, length);
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * This class saves a whole Station to a binary file and restores it, so the
+ * station survives after the program quits. The file is written to a
+ * temporary file first and then moved over the old one, so a crash while
+ * saving leaves the last snapshot in place.
+ *
+ * <p>
+ * The file starts with a 4 byte magic number, the VERSION of the format,
+ * which restore checks, and the station's clock. Then comes a table of the
+ * distinct destinations, each as a 4 byte length and UTF-8 bytes, since
+ * many Trains share one. Then for each Track come its track number,
+ * storage, clock and number of Trains, and for each Train in list order its
+ * train number, arrival minute, transfer time and the index of its
+ * destination in the table. Trains still in a track may have arrived before
+ * its clock, so a track's clock is set after its Trains are added; its
+ * window utilization then counts only the Trains that were still in it.
+ * The Trains of a track are stored in order, so restoring adds them all
+ * with one pass over the list. The whole file is read into memory at once
+ * and decoded from there.
+ *
+ * @author Emily Tsui
+ */
+import java.io.BufferedOutputStream; //For writing the file in large blocks.
+import java.io.DataOutputStream; //For writing numbers.
+import java.io.IOException; //If the file can't be read or written.
+import java.nio.BufferUnderflowException; //If the file ends too soon.
+import java.nio.ByteBuffer; //For decoding the file.
+import java.nio.charset.StandardCharsets; //For encoding destinations.
+import java.nio.file.Files; //For opening and replacing the file.
+import java.nio.file.Path; //For the file location.
+import java.nio.file.StandardCopyOption; //For replacing the file.
+import java.util.ArrayList; //For the destinations and Trains of a track.
+import java.util.HashMap; //For numbering the destinations.
+
+public class StationSnapshot {
+    public static final int VERSION = 1;
+    private static final int MAGIC = 0x53544153; //"STAS"
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Writes every Track and Train of station to file.
+     *
+     * @param station The Station to save.
+     * @param file The location of the file to write.
+     *
+     * @throws IOException
+     * Thrown if the file can't be written.
+     */
+    public static void save(Station station, String file) throws IOException {
+        Path snapshotFile = Path.of(file);
+        Path tempFile = snapshotFile.resolveSibling(
+                snapshotFile.getFileName() + ".tmp");
+        HashMap<String, Integer> destinations = new HashMap<>();
+        ArrayList<String> destinationTable = new ArrayList<>();
+
+        for (Track track : station.getTracks()) {
+            for (Train train : track.getTrains()) {
+                if (destinations.putIfAbsent(train.getDestination(),
+                        destinationTable.size()) == null) {
+                    destinationTable.add(train.getDestination());
+                }
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempFile),
+                        BUFFER_BYTES))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(station.getClock());
+            out.writeInt(destinationTable.size());
+            for (String destination : destinationTable) {
+                byte[] bytes = destination.getBytes(StandardCharsets.UTF_8);
+
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(station.getNumTracks());
+            for (Track track : station.getTracks()) {
+                out.writeInt(track.getTrackNumber());
+                out.writeByte(track.getStorage().ordinal());
+                out.writeInt(track.getClock());
+                out.writeInt(track.getNumTrains());
+
+                for (Train train : track.getTrains()) {
+                    out.writeInt(train.getTrainNumber());
+                    out.writeInt(train.getArrivalMinute());
+                    out.writeInt(train.getTransferTime());
+                    out.writeInt(destinations.get(train.getDestination()));
+                }
+            }
+        }
+        Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a Station saved by save from file.
+     *
+     * @param file The location of the file to read.
+     *
+     * @return A new Station holding the saved Tracks and Trains.
+     *
+     * @throws IOException
+     * Thrown if the file can't be read, was written in a format version
+     * this class doesn't know, or doesn't hold a valid station.
+     */
+    public static Station restore(String file) throws IOException {
+        Station station = new Station();
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(Path.of(file)));
+
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Snapshot file is corrupt.");
+            }
+            int version = in.getInt();
+
+            if (version != VERSION) {
+                throw new IOException("Snapshot file version " + version +
+                        " is not supported.");
+            }
+            int stationClock = in.getInt();
+            String[] destinations = new String[in.getInt()];
+
+            for (int i = 0; i < destinations.length; i++) {
+                int length = in.getInt();
+
+                destinations[i] = new String(in.array(), in.position(),
+                        length, StandardCharsets.UTF_8);
+                in.position(in.position() + length);
+            }
+
+            int numTracks = in.getInt();
+
+            for (int i = 0; i < numTracks; i++) {
+                int trackNumber = in.getInt();
+                Track track = new Track(trackNumber,
+                        Track.Storage.values()[in.get()]);
+                int clock = in.getInt();
+                int numTrains = in.getInt();
+                ArrayList<Train> trains = new ArrayList<>(numTrains);
+
+                for (int j = 0; j < numTrains; j++) {
+                    int trainNumber = in.getInt();
+                    int arrivalMinute = in.getInt();
+                    int transferTime = in.getInt();
+
+                    trains.add(new Train(trainNumber,
+                            destinations[in.getInt()],
+                            arrivalMinute / Train.MINUTES_PER_DAY,
+                            Train.toClockTime(arrivalMinute), transferTime));
+                }
+                if (track.addAllTrains(trains) != numTrains ||
+                        track.advanceClock(clock) != 0) {
+                    throw new IOException("Snapshot file is corrupt.");
+                }
+                station.addTrack(track);
+            }
+            //Tracks added after the clock last moved may be behind it, so
+            //only the station's clock is set.
+            station.clockAdvanced(stationClock);
+        } catch (InvalidTrainException | TrackAlreadyExistsException |
+                 BufferUnderflowException | IllegalArgumentException |
+                 IndexOutOfBoundsException | NegativeArraySizeException ex) {
+            throw new IOException("Snapshot file is corrupt.", ex);
+        }
+        return station;
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * This class loads Trains into a Station from a timetable file with one
+ * "track,train number,destination,arrival time,transfer time" row per line
+ * (a tab may be used instead of the commas). If the file starts with a
+ * header that has a "day" column before the arrival time, every row has
+ * the day its Train arrives on there; otherwise every Train arrives on the
+ * day the station's clock is in.
+ *
+ * <p>
+ * The file is streamed through a buffered reader in batches of BATCH_SIZE
+ * rows; the rows of each batch are grouped by track and each group is added
+ * to its Track with one sort and one pass over the list, instead of being
+ * added row by row. Tracks that are not in the station yet are added to it.
+ * Rows that can't be read as a valid Train, that duplicate a train number
+ * already in the station, or that conflict with another Train in their
+ * track are counted and skipped. When rows share a train number, the first
+ * one in the file that can be added is: the later ones are held back from
+ * their batch and tried one at a time, in file order, after it.
+ *
+ * @author Emily Tsui
+ */
+import java.io.BufferedReader; //For streaming the file.
+import java.io.BufferedWriter; //For writing generated files.
+import java.io.IOException; //If the file can't be read or written.
+import java.nio.charset.StandardCharsets; //For reading the file as UTF-8.
+import java.nio.file.Files; //For opening the file.
+import java.nio.file.Path; //For the file location.
+import java.util.ArrayList; //For the Trains of one track in a batch.
+import java.util.HashSet; //For the train numbers in a batch.
+import java.util.LinkedHashMap; //For grouping a batch by track number.
+import java.util.Map; //For the groups of a batch.
+import java.util.Random; //For generating timetables.
+
+public class TimetableImporter {
+    public static final int BATCH_SIZE = 1 << 16;
+
+    private Station station;
+    private LinkedHashMap<Integer, ArrayList<Train>> batch;
+    private HashSet<Integer> batchNumbers; //Train numbers in batch.
+    private ArrayList<Integer> repeatTracks; //Track of each repeat.
+    private ArrayList<Train> repeats; //Rows whose number is in batch.
+    private int batchSize;
+    private boolean hasDay; //Whether the rows have a day column.
+    private long numRows, numAdded, numInvalid, numRejected, elapsedNanos;
+
+    /**
+     * This is a Constructor used to create a TimetableImporter for station.
+     *
+     * @param station The Station to add the Trains to.
+     */
+    public TimetableImporter(Station station) {
+        this.station = station;
+        batch = new LinkedHashMap<>();
+        batchNumbers = new HashSet<>();
+        repeatTracks = new ArrayList<>();
+        repeats = new ArrayList<>();
+    }
+
+    /**
+     * Adds every valid Train in file to the station. A first line starting
+     * with "track" is taken as a header, which says whether there is a day
+     * column.
+     *
+     * @param file The location of the file to import.
+     *
+     * @throws IOException
+     * Thrown if the file can't be read.
+     */
+    public void importFile(String file) throws IOException {
+        long start = System.nanoTime();
+
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(file),
+                StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+
+            hasDay = false;
+            if (line != null && line.regionMatches(true, 0, "track", 0, 5)) {
+                for (String column : line.split("[,\t]")) {
+                    hasDay |= column.trim().equalsIgnoreCase("day");
+                }
+                line = reader.readLine();
+            }
+            while (line != null) {
+                if (!line.isEmpty()) {
+                    numRows++;
+                    parseRow(line);
+
+                    if (batchSize == BATCH_SIZE) {
+                        addBatch();
+                    }
+                }
+                line = reader.readLine();
+            }
+        }
+        addBatch();
+        elapsedNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Gets the number of rows read so far (not counting a header).
+     *
+     * @return The number of rows read.
+     */
+    public long getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Gets the number of Trains added to the station so far.
+     *
+     * @return The number of Trains added.
+     */
+    public long getNumAdded() {
+        return numAdded;
+    }
+
+    /**
+     * Gets the number of rows skipped because they could not be read as a
+     * valid Train.
+     *
+     * @return The number of invalid rows.
+     */
+    public long getNumInvalid() {
+        return numInvalid;
+    }
+
+    /**
+     * Gets the number of rows skipped because the train number was already
+     * in the station or the Train conflicted with another in its track.
+     *
+     * @return The number of duplicate and conflicting rows.
+     */
+    public long getNumRejected() {
+        return numRejected;
+    }
+
+    /**
+     * Gets the number of rows read per second while importing.
+     *
+     * @return The import rate in rows per second.
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : numRows * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Writes a timetable of numTrains random Trains that can be imported,
+     * for testing imports of large stations. Each track holds Trains one
+     * after another, so none of them conflict.
+     *
+     * @param file The location of the file to write.
+     * @param numTrains The number of Trains to write.
+     * @param numTracks The number of tracks to spread them over.
+     * @param seed The seed for the random rows.
+     *
+     * @throws IOException
+     * Thrown if the file can't be written.
+     */
+    public static void generateFile(String file, int numTrains,
+                                    int numTracks, long seed)
+            throws IOException {
+        Random random = new Random(seed);
+        String[] destinations = {"Boston", "Chicago", "Denver", "Houston",
+                "Montreal", "New York", "Philadelphia", "Washington"};
+        int[] freeTime = new int[numTracks];
+
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(file),
+                StandardCharsets.UTF_8)) {
+            writer.write("track,train,destination,arrival,transfer");
+            writer.newLine();
+
+            for (int i = 0; i < numTrains; i++) {
+                int track = random.nextInt(numTracks);
+                int arrival = Math.min(freeTime[track] + random.nextInt(3),
+                        Train.MINUTES_PER_DAY - 1);
+                int transfer = Math.min(random.nextInt(5),
+                        Train.MINUTES_PER_DAY - 1 - arrival);
+
+                freeTime[track] = arrival + transfer;
+                writer.write(Integer.toString(track + 1));
+                writer.write(',');
+                writer.write(Integer.toString(i + 1));
+                writer.write(',');
+                writer.write(destinations[random.nextInt(
+                        destinations.length)]);
+                writer.write(',');
+                writer.write(String.format("%04d",
+                        Train.toClockTime(arrival)));
+                writer.write(',');
+                writer.write(Integer.toString(transfer));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Adds the Trains of the batch to their tracks, then the repeated train
+     * numbers in file order, and empties it.
+     */
+    private void addBatch() {
+        for (Map.Entry<Integer, ArrayList<Train>> group : batch.entrySet()) {
+            ArrayList<Train> trains = group.getValue();
+            int added = findOrAddTrack(group.getKey()).addAllTrains(trains);
+
+            numAdded += added;
+            numRejected += trains.size() - added;
+        }
+        for (int i = 0; i < repeats.size(); i++) {
+            try {
+                findOrAddTrack(repeatTracks.get(i)).addTrain(repeats.get(i));
+                numAdded++;
+            } catch (InvalidTrainException | TrainAlreadyExistsException |
+                     TrainTimeConflictException ex) {
+                numRejected++;
+            }
+        }
+        batch.clear();
+        batchNumbers.clear();
+        repeatTracks.clear();
+        repeats.clear();
+        batchSize = 0;
+    }
+
+    /**
+     * Returns the Track in the station with trackNumber, adding it if there
+     * is none.
+     */
+    private Track findOrAddTrack(int trackNumber) {
+        Track track = station.getTrack(trackNumber);
+
+        if (track != null) {
+            return track;
+        }
+        track = new Track(trackNumber);
+        try {
+            station.addTrack(track);
+        } catch (TrackAlreadyExistsException ex) {
+            //There is no track with this number.
+            throw new IllegalStateException(ex);
+        }
+        return track;
+    }
+
+    /**
+     * Reads one row into the batch, counting it as invalid if it is not a
+     * valid Train.
+     */
+    private void parseRow(String line) {
+        char separator = line.indexOf('\t') >= 0 ? '\t' : ',';
+        int first = line.indexOf(separator);
+        int second = line.indexOf(separator, first + 1);
+        int fourth = line.lastIndexOf(separator);
+        int third = line.lastIndexOf(separator, fourth - 1);
+        //The destination ends at the day column, if there is one.
+        int destinationEnd = hasDay ? line.lastIndexOf(separator, third - 1) :
+                third;
+
+        if (first < 0 || second < 0 || destinationEnd <= second) {
+            numInvalid++;
+            return;
+        }
+        try {
+            int trackNumber = Integer.parseInt(
+                    line.substring(0, first).trim());
+            int day = hasDay ? Integer.parseInt(
+                    line.substring(destinationEnd + 1, third).trim()) :
+                    station.getClock() / Train.MINUTES_PER_DAY;
+            Train train = new Train(
+                    Integer.parseInt(line.substring(first + 1, second).trim()),
+                    line.substring(second + 1, destinationEnd).trim(),
+                    day,
+                    Integer.parseInt(line.substring(third + 1, fourth).trim()),
+                    Integer.parseInt(line.substring(fourth + 1).trim()));
+
+            if (batchNumbers.add(train.getTrainNumber())) {
+                batch.computeIfAbsent(trackNumber, k -> new ArrayList<>())
+                        .add(train);
+            } else {
+                repeatTracks.add(trackNumber);
+                repeats.add(train);
+            }
+            batchSize++;
+        } catch (NumberFormatException | InvalidTrainException ex) {
+            numInvalid++;
+        }
+    }
+
+    /**
+     * Writes a random timetable for testing imports.
+     *
+     * @param args
+     * The location of the file to write, the number of Trains, and the
+     * number of tracks.
+     *
+     * @throws IOException
+     * Thrown if the file can't be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.out.println("Usage: java TimetableImporter <file> " +
+                    "<trains> <tracks>");
+            return;
+        }
+        generateFile(args[0], Integer.parseInt(args[1]),
+                Integer.parseInt(args[2]), 0);
+        System.out.println("Wrote " + args[1] + " trains to " + args[0] + ".");
+    }
+}
@@ -4,25 +4,87 @@
  * as well as a cursor representing the selected Train node. Each track has a
  * unique track number and utilization rate.
  *
+ * <p>
+ * Alongside the list, the Trains are indexed by train number in a hash map
+ * and by their time slot in a sorted map, so duplicate checks take O(1)
+ * time and time conflict checks and finding where a new Train goes in the
+ * list take O(log n) time. Trains in a track never overlap, so when sorted
+ * by arrival they are also sorted by departure: a new Train conflicts with
+ * some Train exactly when it conflicts with the last Train arriving before
+ * it departs, and that Train is found with one search of the sorted map.
+ * While the track is in a Station, the Station is told about every Train
+ * added or removed so it can keep train numbers unique across the station.
+ *
+ * <p>
+ * The track also keeps a bitmap with one bit per minute that is set while a
+ * Train is in the track. Checking a Train for a time conflict then only
+ * scans the few words of the bitmap under its stay. The bitmap covers the
+ * MAPPED_MINUTES from its start, so a Train staying past them is checked
+ * with the sorted map instead, and so is every Train while the track holds
+ * one that stays for no time, which the bitmap can't show.
+ *
+ * <p>
+ * Times are minutes after midnight of the first day, so a track can hold
+ * Trains over many days. The track has a clock that only moves forward:
+ * advancing it removes the Trains that have departed, which are always at
+ * the head of the list, and new Trains can't arrive before it. The minutes
+ * the track was in use during the last WINDOW_MINUTES before the clock are
+ * kept as a running count, updated from the Trains the clock passes, so the
+ * window utilization rate takes O(1) time and advancing the clock only
+ * looks at the Trains it passes. Every half of MAPPED_MINUTES the bitmap is
+ * moved to start at the clock.
+ *
+ * <p>
+ * A track can instead be constructed with array storage, which keeps the
+ * Trains as sorted columns of primitives (see TrainArray) with the index of
+ * the selected Train as the cursor. Conflicts and insertion points are then
+ * found by binary search, finding a train number scans one int array, and
+ * the Trains returned by the track are new copies made from the columns.
+ *
  * @author Emily Tsui
  */
+import java.util.ArrayDeque; //For departed Trains still in the window.
+import java.util.ArrayList; //For sorting a batch of Trains.
+import java.util.BitSet; //For the minutes the track is in use.
+import java.util.Collection; //For the Trains of this track.
+import java.util.Collections; //For a read-only view of the Trains.
+import java.util.Comparator; //For sorting a batch of Trains.
+import java.util.HashMap; //For finding Trains by train number.
+import java.util.Map; //For entries of the time slot index.
+import java.util.TreeMap; //For finding Trains by time slot.
+
 public class Track {
+    public static final int MAPPED_MINUTES = 7 * Train.MINUTES_PER_DAY;
+    public static final int WINDOW_MINUTES = Train.MINUTES_PER_DAY;
+
+    /**
+     * The ways a Track can store its Trains.
+     */
+    public enum Storage {
+        LINKED, //Train nodes in a linked list with hash and sorted indexes.
+        ARRAY //Sorted primitive columns in a TrainArray, no indexes.
+    }
+
+    private Storage storage;
+    private TrainArray array; //The Trains if storage is ARRAY, else null.
+    private int cursorIndex; //Index of the selected Train in array, or -1.
     private Train head, tail, cursor;
     private Track next, prev;
-    private double utilizationRate;
     private int trackNumber, numTrains, utilizationTime;
+    private BitSet occupied; //Bit m is set if a Train is here at mapBase + m.
+    private int mapBase, numUnmappedTrains; //Trains staying no time.
+    private int clock;
+    private long windowTime; //Minutes in use from clock - WINDOW_MINUTES.
+    private ArrayDeque<int[]> departed; //{arrival, departure} in the window.
+    private HashMap<Integer, Train> trainsByNumber;
+    private TreeMap<Slot, Train> trainsBySlot; //Same order as the list.
+    private Station station; //The Station this track is in, or null.
 
     /**
      * This is a Constructor used to create a new Track object.
      */
     public Track() {
-        head = null;
-        tail = null;
-        cursor = null;
-        next = null;
-        prev = null;
-        utilizationRate = 0;
-        trackNumber = 0;
+        this(0);
     }
 
     /**
@@ -32,7 +94,42 @@ public class Track {
      * @param trackNumber the track number
      */
     public Track(int trackNumber) {
+        this(trackNumber, Storage.LINKED);
+    }
+
+    /**
+     * This is a Constructor used to create a new Track object that uses the
+     * given storage.
+     *
+     * @param trackNumber the track number
+     * @param storage how this Track stores its Trains
+     */
+    public Track(int trackNumber, Storage storage) {
         this.trackNumber = trackNumber;
+        this.storage = storage;
+        head = null;
+        tail = null;
+        cursor = null;
+        cursorIndex = -1;
+        next = null;
+        prev = null;
+        departed = new ArrayDeque<>();
+        if (storage == Storage.ARRAY) {
+            array = new TrainArray();
+        } else {
+            trainsByNumber = new HashMap<>();
+            trainsBySlot = new TreeMap<>();
+            occupied = new BitSet(Train.MINUTES_PER_DAY);
+        }
+    }
+
+    /**
+     * Gets how this Track stores its Trains.
+     *
+     * @return The storage of this Track.
+     */
+    public Storage getStorage() {
+        return storage;
     }
 
     /**
@@ -55,13 +152,25 @@ public class Track {
 
     /**
      * Gets the utilization rate of this track. It represents the percentage of
-     * the day the track is being used (total time of trains waiting at the
-     * track / total minutes in a day).
+     * the days the track is being used (total time of trains waiting at the
+     * track / total minutes in the days from the first train's arrival to the
+     * last train's departure), so it is never over 100.
      *
      * @return The utilization rate of this track as a double.
      */
     public double getUtilizationRate() {
-        return utilizationRate;
+        if (numTrains == 0) {
+            return 0;
+        }
+        int first = array != null ? array.getArrivalMinute(0) :
+                head.getArrivalMinute();
+        int last = array != null ? array.getDepartureMinute(array.size() - 1) :
+                tail.getDepartureMinute();
+        //A Train departing at midnight doesn't use the day that starts then.
+        int days = Math.max(last - 1, first) / Train.MINUTES_PER_DAY -
+                first / Train.MINUTES_PER_DAY + 1;
+
+        return utilizationTime * 100.0 / days / Train.MINUTES_PER_DAY;
     }
 
     /**
@@ -82,6 +191,186 @@ public class Track {
         return numTrains;
     }
 
+    /**
+     * Gets the time of this track's clock. Trains can't be added to this
+     * track arriving before it.
+     *
+     * @return The clock in minutes after midnight of the first day.
+     */
+    public int getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the percentage of the last WINDOW_MINUTES before the clock that
+     * this track was in use, counting Trains that have since departed.
+     *
+     * @return The window utilization rate of this track as a double.
+     */
+    public double getWindowUtilizationRate() {
+        return windowTime * 100.0 / WINDOW_MINUTES;
+    }
+
+    /**
+     * Moves this track's clock forward to minute and removes every Train
+     * that has departed by then. Only the removed Trains and the first Train
+     * still in the track are looked at.
+     *
+     * <p>
+     * Postcondition:
+     * If the selected Train departed, the selected Train is the first Train
+     * still in the track, or null if there is none.
+     *
+     * @param minute
+     * The new time of the clock. A time before the clock is ignored.
+     *
+     * @return
+     * The number of Trains that departed.
+     */
+    public int advanceClock(int minute) {
+        if (minute <= clock) {
+            return 0;
+        }
+        int from = clock;
+        int expired = 0;
+
+        //Trains are sorted by both arrival and departure, so the Trains
+        //that have departed come first, then at most one still here.
+        if (array != null) {
+            while (expired < array.size() &&
+                    array.getArrivalMinute(expired) < minute) {
+                int arrival = array.getArrivalMinute(expired);
+                int departure = array.getDepartureMinute(expired);
+
+                windowTime += overlap(arrival, departure, from, minute);
+                if (departure > minute) {
+                    break;
+                }
+                departed.add(new int[] {arrival, departure});
+                expired++;
+            }
+            removeFirst(expired);
+        } else {
+            Train curr = head;
+
+            while (curr != null && curr.getArrivalMinute() < minute) {
+                Train currNext = curr.getNext();
+
+                windowTime += overlap(curr.getArrivalMinute(),
+                        curr.getDepartureMinute(), from, minute);
+                if (curr.getDepartureMinute() > minute) {
+                    break;
+                }
+                departed.add(new int[] {curr.getArrivalMinute(),
+                        curr.getDepartureMinute()});
+                remove(curr);
+                expired++;
+                curr = currNext;
+            }
+        }
+
+        //Minutes that fall out of the window.
+        int windowFrom = from - WINDOW_MINUTES;
+        int windowTo = minute - WINDOW_MINUTES;
+
+        while (!departed.isEmpty() && departed.peek()[0] < windowTo) {
+            int[] stay = departed.peek();
+
+            windowTime -= overlap(stay[0], stay[1], windowFrom, windowTo);
+            if (stay[1] > windowTo) {
+                break;
+            }
+            departed.poll();
+        }
+        if (departed.isEmpty() && numTrains > 0) {
+            int arrival = array != null ? array.getArrivalMinute(0) :
+                    head.getArrivalMinute();
+            int departure = array != null ? array.getDepartureMinute(0) :
+                    head.getDepartureMinute();
+
+            windowTime -= overlap(arrival, departure, windowFrom, windowTo);
+        }
+
+        clock = minute;
+        if (station != null) {
+            station.clockAdvanced(minute);
+        }
+        if (array == null && clock - mapBase >= MAPPED_MINUTES / 2) {
+            //Rebuilt from the Trains still here, once every few days.
+            mapBase = clock;
+            occupied.clear();
+            numUnmappedTrains = 0;
+            for (Train curr = head; curr != null; curr = curr.getNext()) {
+                mark(curr);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Gets the time this track is free from: the latest departure time of
+     * its Trains. A Train arriving at or after this time never conflicts
+     * with a Train already in this track.
+     *
+     * @return The latest departure time in this track in minutes after
+     * midnight, or the clock if it is later.
+     */
+    public int getFreeTime() {
+        //Trains never overlap, so the last one in order departs last.
+        if (array != null) {
+            return array.size() == 0 ? clock : Math.max(clock,
+                    array.getDepartureMinute(array.size() - 1));
+        }
+        return trainsBySlot.isEmpty() ? clock :
+                Math.max(clock, trainsBySlot.lastKey().departureMinute);
+    }
+
+    /**
+     * Gets the Train in this track with trainNumber.
+     *
+     * @param trainNumber The train number to look for.
+     *
+     * @return The Train with trainNumber, or null if it is not in this track.
+     */
+    public Train getTrain(int trainNumber) {
+        if (array != null) {
+            int index = array.indexOf(trainNumber);
+
+            return index < 0 ? null : array.get(index);
+        }
+        return trainsByNumber.get(trainNumber);
+    }
+
+    /**
+     * Gets the Trains in this track in the same order as the list.
+     *
+     * @return A read-only view of the Trains in this track.
+     */
+    public Collection<Train> getTrains() {
+        if (array != null) {
+            return array.asList();
+        }
+        return Collections.unmodifiableCollection(trainsBySlot.values());
+    }
+
+    /**
+     * Gets the Station this track is in.
+     *
+     * @return The Station this track is in, or null if it isn't in one.
+     */
+    Station getStation() {
+        return station;
+    }
+
+    /**
+     * Sets the Station this track is in. Only Station calls this.
+     *
+     * @param station The Station this track was added to, or null.
+     */
+    void setStation(Station station) {
+        this.station = station;
+    }
+
     /**
      * Sets the next track in the linked list.
      * <p>
@@ -119,17 +408,26 @@ public class Track {
      * false otherwise.
      */
     public boolean timeConflict(Train train) {
-        Train curr = head;
+        if (array != null) {
+            return array.conflicts(train.getArrivalMinute(),
+                    train.getDepartureMinute());
+        }
+        if (numUnmappedTrains == 0 && train.getTransferTime() > 0 &&
+                train.getArrivalMinute() >= mapBase &&
+                train.getDepartureMinute() - mapBase <= MAPPED_MINUTES) {
+            int busy = occupied.nextSetBit(train.getArrivalMinute() - mapBase);
 
-        while (curr != null) {
-            if (train.getArrivalTime() < curr.departureTime() &&
-                    curr.getArrivalTime() < train.departureTime()) {
-                return true;
-            }
-            curr = curr.getNext();
+            return busy >= 0 && busy < train.getDepartureMinute() - mapBase;
         }
 
-        return false;
+        //The last Train arriving before train departs has the latest
+        //departure of all of them, so it is the only one to check.
+        Map.Entry<Slot, Train> before = trainsBySlot.lowerEntry(new Slot(
+                train.getDepartureMinute(), Integer.MIN_VALUE,
+                Integer.MIN_VALUE));
+
+        return before != null && train.getArrivalMinute() <
+                before.getKey().departureMinute;
     }
 
     /**
@@ -148,27 +446,54 @@ public class Track {
      * The currently selected train for this Track object is
      * updated to be the newly inserted Train.
      * New train is now in the correct order in the list (sorted according to
-     * arrival time).
+     * arrival time, then departure time, then train number).
      *
      * @throws InvalidTrainException
-     * Thrown if the train's arrival time is invalid.
+     * Thrown if the train arrives before the track's clock.
      * @throws TrainAlreadyExistsException
      * Thrown if there is already a train
-     * in this track which is equivalent to newTrain.
+     * in this track which is equivalent to newTrain, or in any track of the
+     * Station this track is in.
      * @throws TrainTimeConflictException
      * Thrown if newTrain is scheduled for the same time as another train in
      * this track.
      */
     public void addTrain(Train newTrain) throws InvalidTrainException,
             TrainAlreadyExistsException, TrainTimeConflictException {
-        if (!Train.validTime(newTrain.getArrivalTime())) {
+        if (newTrain.getArrivalMinute() < clock) {
             throw new InvalidTrainException("Invalid arrival time.");
         }
         if (this.exists(newTrain)) {
             throw new TrainAlreadyExistsException("Train already exists in " +
                     "track.");
         }
-        if (this.timeConflict(newTrain)) {
+        if (station != null &&
+                station.findTrack(newTrain.getTrainNumber()) != null) {
+            throw new TrainAlreadyExistsException("Train already exists in " +
+                    "station.");
+        }
+        if (array != null) {
+            if (array.conflicts(newTrain.getArrivalMinute(),
+                    newTrain.getDepartureMinute())) {
+                throw new TrainTimeConflictException("Train time conflicts " +
+                        "with another train in the track.");
+            }
+            cursorIndex = array.insert(newTrain);
+            if (station != null) {
+                station.trainAdded(this, newTrain);
+            }
+            utilizationTime += newTrain.getTransferTime();
+            numTrains++;
+            return;
+        }
+        Slot slot = new Slot(newTrain);
+        //A Train arriving once the track is free that sorts last needs no
+        //searches, which is the usual case when Trains come in time order.
+        boolean last = cursor == null ||
+                (newTrain.getArrivalMinute() >= getFreeTime() &&
+                        slot.compareTo(trainsBySlot.lastKey()) > 0);
+
+        if (!last && this.timeConflict(newTrain)) {
             throw new TrainTimeConflictException("Train time conflicts with " +
                     "another train in the track.");
         } else {
@@ -176,12 +501,10 @@ public class Track {
                 head = newTrain;
                 tail = newTrain;
             } else {
-                Train curr = tail;
-
-                while (curr != null && newTrain.getArrivalTime() <
-                        curr.getArrivalTime()) {
-                    curr = curr.getPrev();
-                }
+                Map.Entry<Slot, Train> before = last ? null :
+                        trainsBySlot.lowerEntry(slot);
+                Train curr = last ? tail :
+                        before == null ? null : before.getValue();
 
                 if (curr == null) {
                     newTrain.setNext(head);
@@ -206,19 +529,142 @@ public class Track {
             }
 
             cursor = newTrain;
+            trainsByNumber.put(newTrain.getTrainNumber(), newTrain);
+            trainsBySlot.put(slot, newTrain);
+            if (station != null) {
+                station.trainAdded(this, newTrain);
+            }
 
-            utilizationTime += cursor.getTransferTime();
-            utilizationRate = utilizationTime / 1440.0 * 100;
+            mark(newTrain);
+            utilizationTime += newTrain.getTransferTime();
 
             numTrains++;
         }
     }
 
+    /**
+     * Adds every Train of batch that has a valid arrival time, is not already
+     * in this track, its Station, or earlier in batch, and doesn't conflict
+     * with a Train in this track or an earlier accepted Train of batch. The
+     * accepted Trains are sorted once and merged into the list in one pass,
+     * which is much faster than adding them one at a time for large batches.
+     *
+     * @param batch
+     * The Trains to add, in any order. None of them may be in another track.
+     *
+     * <p>
+     * Postcondition:
+     * The accepted Trains are in the correct order in the list, and the
+     * selected Train is the last accepted Train in that order.
+     *
+     * @return
+     * The number of Trains that were added.
+     */
+    public int addAllTrains(Collection<Train> batch) {
+        ArrayList<Train> sorted = new ArrayList<>(batch);
+        ArrayList<Train> accepted = new ArrayList<>(sorted.size());
+        Train lastAccepted = null;
+
+        sorted.sort(Comparator.comparingInt(Train::getArrivalMinute)
+                .thenComparingInt(Train::getDepartureMinute)
+                .thenComparingInt(Train::getTrainNumber));
+
+        if (array != null) {
+            //In time order each insert lands at the end of the columns.
+            int added = 0;
+
+            for (Train train : sorted) {
+                try {
+                    addTrain(train);
+                    added++;
+                } catch (InvalidTrainException | TrainAlreadyExistsException |
+                         TrainTimeConflictException ex) {
+                    //Skipped, as in the linked storage.
+                }
+            }
+            return added;
+        }
+
+        for (Train train : sorted) {
+            int trainNumber = train.getTrainNumber();
+            boolean invalid = train.getArrivalMinute() < clock;
+            boolean duplicate = trainsByNumber.containsKey(trainNumber) ||
+                    (station != null && station.findTrack(trainNumber) != null);
+            //The accepted Trains are only linked in at the end, so the
+            //indexes still hold just the Trains already in the track.
+            boolean conflict = (numTrains > 0 && this.timeConflict(train)) ||
+                    (lastAccepted != null && train.getArrivalMinute() <
+                            lastAccepted.getDepartureMinute() &&
+                            lastAccepted.getArrivalMinute() <
+                                    train.getDepartureMinute());
+
+            if (invalid || duplicate || conflict) {
+                continue;
+            }
+            accepted.add(train);
+            lastAccepted = train;
+            trainsByNumber.put(train.getTrainNumber(), train);
+            if (station != null) {
+                station.trainAdded(this, train);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        //Merge the accepted Trains into the list.
+        Train curr = head;
+        Train last = null;
+
+        head = null;
+        for (Train train : accepted) {
+            Slot slot = new Slot(train);
+
+            while (curr != null && new Slot(curr).compareTo(slot) < 0) {
+                last = link(last, curr);
+                curr = curr.getNext();
+            }
+            last = link(last, train);
+            trainsBySlot.put(slot, train);
+
+            mark(train);
+            utilizationTime += train.getTransferTime();
+        }
+        while (curr != null) {
+            last = link(last, curr);
+            curr = curr.getNext();
+        }
+        last.setNext(null);
+        tail = last;
+        cursor = lastAccepted;
+        numTrains += accepted.size();
+
+        return accepted.size();
+    }
+
+    /**
+     * Links train after last in the list being rebuilt and returns train.
+     */
+    private Train link(Train last, Train train) {
+        if (last == null) {
+            head = train;
+        } else {
+            last.setNext(train);
+        }
+        train.setPrev(last);
+        return train;
+    }
+
     /**
      * Prints the data of the selected Train.
      */
     public void printSelectedTrain() throws NoSelectedTrainException{
-        if(cursor == null){
+        if(array != null){
+            if(cursorIndex < 0){
+                throw new NoSelectedTrainException("Selected train is null");
+            }
+            System.out.println("\n" + array.get(cursorIndex).toString());
+        }else if(cursor == null){
             throw new NoSelectedTrainException("Selected train is null");
         }else{
             System.out.println("\n" + cursor.toString());
@@ -241,37 +687,136 @@ public class Track {
      * returns null.
      */
     public Train removeSelectedTrain() {
-        if (cursor == null) {
+        if (array != null) {
+            return cursorIndex < 0 ? null : forget(removeAt(cursorIndex));
+        } else if (cursor == null) {
             return null;
         } else {
-            Train trainToRemove = cursor;
-            Train currNext = trainToRemove.getNext();
-            Train currPrev = trainToRemove.getPrev();
-
-            if (head == tail) { //Only Train in the Track list
-                head = null;
-                tail = null;
-                cursor = null;
-            } else if (trainToRemove == head) { //Removed the first Train in the Track
-                head = currNext;
-                head.setPrev(null);
+            return forget(remove(cursor));
+        }
+    }
+
+    /**
+     * Removes the Train with trainNumber from the track and returns a
+     * reference to it.
+     *
+     * <p>
+     * Postcondition:
+     * If the removed Train was the selected Train, the selected Train moves
+     * as in removeSelectedTrain; otherwise the selected Train stays the same.
+     *
+     * @param trainNumber
+     * The train number of the Train to remove.
+     *
+     * @return
+     * A reference to the removed train. If there is no Train with
+     * trainNumber in this track, returns null.
+     */
+    public Train removeTrain(int trainNumber) {
+        if (array != null) {
+            int index = array.indexOf(trainNumber);
+
+            return index < 0 ? null : forget(removeAt(index));
+        }
+        Train train = trainsByNumber.get(trainNumber);
+
+        return train == null ? null : forget(remove(train));
+    }
+
+    /**
+     * Takes the minutes a removed Train was in use out of the window, as if
+     * it had never been in the track, and returns it.
+     */
+    private Train forget(Train removed) {
+        windowTime -= overlap(removed.getArrivalMinute(),
+                removed.getDepartureMinute(), clock - WINDOW_MINUTES, clock);
+        return removed;
+    }
+
+    /**
+     * Removes the first count Trains from array, moving the cursor as the
+     * linked storage does.
+     */
+    private void removeFirst(int count) {
+        for (int i = 0; i < count; i++) {
+            Train trainToRemove = array.get(i);
+
+            if (station != null) {
+                station.trainRemoved(trainToRemove);
+            }
+            utilizationTime -= trainToRemove.getTransferTime();
+        }
+        array.removeFirst(count);
+        cursorIndex = cursorIndex >= count ? cursorIndex - count :
+                array.size() > 0 ? 0 : -1;
+        numTrains -= count;
+    }
+
+    /**
+     * Removes the Train at index from array, moving the cursor as the linked
+     * storage does.
+     */
+    private Train removeAt(int index) {
+        Train trainToRemove = array.get(index);
+
+        array.remove(index);
+        if (cursorIndex > index ||
+                (cursorIndex == index && index == array.size())) {
+            cursorIndex--; //Removed the tail, so select the one before it.
+        }
+        if (station != null) {
+            station.trainRemoved(trainToRemove);
+        }
+        utilizationTime -= trainToRemove.getTransferTime();
+        numTrains--;
+
+        return trainToRemove;
+    }
+
+    /**
+     * Unlinks trainToRemove, which is in this track, and updates the indexes.
+     */
+    private Train remove(Train trainToRemove) {
+        Train currNext = trainToRemove.getNext();
+        Train currPrev = trainToRemove.getPrev();
+
+        if (head == tail) { //Only Train in the Track list
+            head = null;
+            tail = null;
+            cursor = null;
+        } else if (trainToRemove == head) { //Removed the first Train in the Track
+            head = currNext;
+            head.setPrev(null);
+            if (cursor == trainToRemove) {
                 cursor = head;
-            } else if (trainToRemove == tail) { //No Train after removed one
-                tail = currPrev;
+            }
+        } else if (trainToRemove == tail) { //No Train after removed one
+            tail = currPrev;
+            tail.setNext(null);
+            if (cursor == trainToRemove) {
                 cursor = currPrev;
-            } else {
-                currPrev.setNext(currNext);
-                currNext.setPrev(currPrev);
+            }
+        } else {
+            currPrev.setNext(currNext);
+            currNext.setPrev(currPrev);
+            if (cursor == trainToRemove) {
                 cursor = currNext;
             }
+        }
+        trainToRemove.setNext(null);
+        trainToRemove.setPrev(null);
+        trainsByNumber.remove(trainToRemove.getTrainNumber());
+        trainsBySlot.remove(new Slot(trainToRemove));
+        if (station != null) {
+            station.trainRemoved(trainToRemove);
+        }
 
-            utilizationTime -= trainToRemove.getTransferTime();
-            utilizationRate = utilizationTime / 1440.0 * 100;
+        unmark(trainToRemove);
+        utilizationTime -= trainToRemove.getTransferTime();
 
-            numTrains--;
+        numTrains--;
 
-            return trainToRemove;
-        }
+        return trainToRemove;
     }
 
     /**
@@ -286,9 +831,16 @@ public class Track {
      * Thrown if there is no selected Train.
      */
     public boolean selectNextTrain() throws NoSelectedTrainException {
-        if (cursor == null) {
+        if (array != null ? cursorIndex < 0 : cursor == null) {
             throw new NoSelectedTrainException("There is no selected Train.");
         }
+        if (array != null) {
+            if (cursorIndex + 1 < array.size()) {
+                cursorIndex++;
+                return true;
+            }
+            return false;
+        }
         if (cursor.getNext() != null) {
             cursor = cursor.getNext();
             return true;
@@ -308,9 +860,16 @@ public class Track {
      * Thrown if there is no selected Train.
      */
     public boolean selectPrevTrain() throws NoSelectedTrainException {
-        if (cursor == null) {
+        if (array != null ? cursorIndex < 0 : cursor == null) {
             throw new NoSelectedTrainException("There is no selected Train.");
         }
+        if (array != null) {
+            if (cursorIndex > 0) {
+                cursorIndex--;
+                return true;
+            }
+            return false;
+        }
         if (cursor.getPrev() != null) {
             cursor = cursor.getPrev();
             return true;
@@ -338,17 +897,10 @@ public class Track {
         if (train == null || !(train instanceof Train)) {
             throw new IllegalArgumentException("Train is not a valid Train " +
                     "object.");
+        } else if (array != null) {
+            return array.indexOf(train.getTrainNumber()) >= 0;
         } else {
-            Train curr = head;
-
-            while (curr != null) {
-                if (curr.equals(train)) {
-                    return true;
-                }
-                curr = curr.getNext();
-            }
-
-            return false;
+            return trainsByNumber.containsKey(train.getTrainNumber());
         }
     }
 
@@ -365,18 +917,101 @@ public class Track {
         Train curr = head;
         StringBuilder formatted = new StringBuilder();
 
+        if (array != null) {
+            for (int i = 0; i < array.size(); i++) {
+                formatted.append(String.format("%-9s%10d%10s%-20s%12s%18s%n",
+                        i == cursorIndex ? "    *   " : "",
+                        array.getTrainNumber(i),
+                        "",
+                        array.getDestination(i),
+                        Train.formatTime(array.getArrivalMinute(i)),
+                        Train.formatTime(array.getDepartureMinute(i))
+                ));
+            }
+            return formatted.toString();
+        }
+
         for (int i = 0; i < numTrains; i++) {
             formatted.append(String.format("%-9s%10d%10s%-20s%12s%18s%n",
                     curr.equals(cursor) ? "    *   " : "",
                     curr.getTrainNumber(),
                     "",
                     curr.getDestination(),
-                    String.format("%04d", curr.getArrivalTime()),
-                    String.format("%04d", curr.departureTime())
+                    Train.formatTime(curr.getArrivalMinute()),
+                    Train.formatTime(curr.getDepartureMinute())
             ));
             curr = curr.getNext();
         }
 
         return formatted.toString();
     }
+
+    /**
+     * Sets the bits for the minutes train is in the track from mapBase up
+     * to MAPPED_MINUTES later, or counts it as unmapped if it stays for no
+     * time. The minutes after the bitmap aren't needed, since only Trains
+     * within it are checked with it.
+     */
+    private void mark(Train train) {
+        if (train.getTransferTime() == 0) {
+            numUnmappedTrains++;
+        } else if (train.getArrivalMinute() - mapBase < MAPPED_MINUTES) {
+            occupied.set(Math.max(train.getArrivalMinute() - mapBase, 0),
+                    Math.min(train.getDepartureMinute() - mapBase,
+                            MAPPED_MINUTES));
+        }
+    }
+
+    /**
+     * Undoes mark for train.
+     */
+    private void unmark(Train train) {
+        if (train.getTransferTime() == 0) {
+            numUnmappedTrains--;
+        } else if (train.getArrivalMinute() - mapBase < MAPPED_MINUTES) {
+            occupied.clear(Math.max(train.getArrivalMinute() - mapBase, 0),
+                    Math.min(train.getDepartureMinute() - mapBase,
+                            MAPPED_MINUTES));
+        }
+    }
+
+    /**
+     * Returns the number of minutes a stay from arrival until departure
+     * overlaps the minutes from up to but not including to.
+     */
+    private static long overlap(int arrival, int departure, int from, int to) {
+        return Math.max(0L, (long) Math.min(departure, to) -
+                Math.max(arrival, from));
+    }
+
+    /**
+     * The time slot of a Train, used to order the Trains of a track: by
+     * arrival time, then departure time, then train number.
+     */
+    private static class Slot implements Comparable<Slot> {
+        private int arrivalMinute, departureMinute, trainNumber;
+
+        private Slot(Train train) {
+            this(train.getArrivalMinute(), train.getDepartureMinute(),
+                    train.getTrainNumber());
+        }
+
+        private Slot(int arrivalMinute, int departureMinute, int trainNumber) {
+            this.arrivalMinute = arrivalMinute;
+            this.departureMinute = departureMinute;
+            this.trainNumber = trainNumber;
+        }
+
+        @Override
+        public int compareTo(Slot other) {
+            if (arrivalMinute != other.arrivalMinute) {
+                return Integer.compare(arrivalMinute, other.arrivalMinute);
+            }
+            if (departureMinute != other.departureMinute) {
+                return Integer.compare(departureMinute,
+                        other.departureMinute);
+            }
+            return Integer.compare(trainNumber, other.trainNumber);
+        }
+    }
 }
@@ -0,0 +1,201 @@
+/**
+ * This class assigns Trains to the Tracks of a Station automatically, so the
+ * operator doesn't have to pick a track for each one. Each Train is added to
+ * the track that became free the earliest, and a new track is opened only
+ * when every track is still busy at the Train's arrival time. The tracks are
+ * kept in a priority queue ordered by the time each one is free from, so
+ * each Train is assigned in O(log t) time for t tracks.
+ *
+ * <p>
+ * When the Trains are given in order of arrival time (scheduleAll sorts
+ * them), this uses the fewest tracks possible: a new track is opened only
+ * when every open track holds a Train that is still there, so that many
+ * Trains really are at the station at the same time.
+ *
+ * <p>
+ * Tracks should not be removed from the station while a scheduler for it
+ * is in use.
+ *
+ * @author Emily Tsui
+ */
+import java.util.ArrayList; //For sorting the Trains to schedule.
+import java.util.Collection; //For the Trains to schedule.
+import java.util.Comparator; //For ordering Trains and tracks by time.
+import java.util.PriorityQueue; //For finding the earliest free track.
+
+public class TrackScheduler {
+    private Station station;
+    private PriorityQueue<OpenTrack> openTracks;
+    private int nextTrackNumber;
+    private int numScheduled, numRejected, numTracksOpened;
+
+    /**
+     * This is a Constructor used to create a TrackScheduler for station.
+     * Trains are only added to existing tracks after their last Train, and
+     * new tracks are numbered after the highest track number in station.
+     *
+     * @param station The Station whose tracks the Trains are assigned to.
+     */
+    public TrackScheduler(Station station) {
+        this.station = station;
+        openTracks = new PriorityQueue<>(
+                Comparator.comparingInt((OpenTrack open) -> open.freeTime));
+        nextTrackNumber = 1;
+
+        for (Track track : station.getTracks()) {
+            openTracks.add(new OpenTrack(track));
+            nextTrackNumber = Math.max(nextTrackNumber,
+                    track.getTrackNumber() + 1);
+        }
+    }
+
+    /**
+     * Assigns newTrain to the track that has been free the longest at its
+     * arrival time, or to a new track if every track is busy.
+     *
+     * @param newTrain The Train to schedule.
+     *
+     * @return The Track newTrain was added to.
+     *
+     * @throws InvalidTrainException
+     * Thrown if the train arrives before the station's clock.
+     * @throws TrainAlreadyExistsException
+     * Thrown if there is already a train in the station with the same
+     * train number as newTrain.
+     */
+    public Track assign(Train newTrain) throws InvalidTrainException,
+            TrainAlreadyExistsException {
+        if (newTrain.getArrivalMinute() < station.getClock()) {
+            numRejected++;
+            throw new InvalidTrainException("Invalid arrival time.");
+        }
+        if (station.findTrack(newTrain.getTrainNumber()) != null) {
+            numRejected++;
+            throw new TrainAlreadyExistsException("Train already exists in " +
+                    "station.");
+        }
+        OpenTrack open = openTracks.peek();
+
+        if (open == null || open.freeTime > newTrain.getArrivalMinute()) {
+            open = new OpenTrack(openTrack());
+        } else {
+            openTracks.poll();
+        }
+
+        try {
+            open.track.addTrain(newTrain);
+        } catch (InvalidTrainException ex) {
+            numRejected++;
+            throw ex;
+        } catch (TrainTimeConflictException ex) {
+            //The track is free from before newTrain arrives.
+            throw new IllegalStateException(ex);
+        } finally {
+            open.freeTime = open.track.getFreeTime();
+            openTracks.add(open);
+        }
+        numScheduled++;
+        return open.track;
+    }
+
+    /**
+     * Assigns every Train of trains, taking them in order of arrival time so
+     * that as few tracks as possible are used. Trains that are invalid or
+     * already in the station are skipped and counted as rejected.
+     *
+     * @param trains The Trains to schedule, in any order.
+     *
+     * @return The number of Trains that were scheduled.
+     */
+    public int scheduleAll(Collection<Train> trains) {
+        ArrayList<Train> sorted = new ArrayList<>(trains);
+        int scheduled = 0;
+
+        sorted.sort(Comparator.comparingInt(Train::getArrivalMinute));
+
+        for (Train train : sorted) {
+            try {
+                assign(train);
+                scheduled++;
+            } catch (InvalidTrainException | TrainAlreadyExistsException ex) {
+                //Counted as rejected by assign.
+            }
+        }
+        return scheduled;
+    }
+
+    /**
+     * Gets the number of Trains this scheduler has added to the station.
+     *
+     * @return The number of Trains scheduled.
+     */
+    public int getNumScheduled() {
+        return numScheduled;
+    }
+
+    /**
+     * Gets the number of Trains this scheduler could not add because they
+     * were invalid or already in the station.
+     *
+     * @return The number of Trains rejected.
+     */
+    public int getNumRejected() {
+        return numRejected;
+    }
+
+    /**
+     * Gets the number of tracks this scheduler added to the station.
+     *
+     * @return The number of tracks opened.
+     */
+    public int getNumTracksOpened() {
+        return numTracksOpened;
+    }
+
+    /**
+     * Gets the average utilization rate of the tracks in the station.
+     *
+     * @return The mean utilization rate of all tracks as a percentage, or 0
+     * if there are no tracks.
+     */
+    public double getAverageUtilizationRate() {
+        double total = 0;
+
+        for (OpenTrack open : openTracks) {
+            total += open.track.getUtilizationRate();
+        }
+        return openTracks.isEmpty() ? 0 : total / openTracks.size();
+    }
+
+    /**
+     * Adds a new empty track to the station, with its clock set to the
+     * station's.
+     */
+    private Track openTrack() {
+        Track track = new Track(nextTrackNumber++);
+
+        track.advanceClock(station.getClock());
+
+        try {
+            station.addTrack(track);
+        } catch (TrackAlreadyExistsException ex) {
+            //Numbers are chosen above every track in the station.
+            throw new IllegalStateException(ex);
+        }
+        numTracksOpened++;
+        return track;
+    }
+
+    /**
+     * A track in the priority queue with the time it is free from.
+     */
+    private static class OpenTrack {
+        private Track track;
+        private int freeTime;
+
+        private OpenTrack(Track track) {
+            this.track = track;
+            freeTime = track.getFreeTime();
+        }
+    }
+}
@@ -4,11 +4,22 @@
  * the train to its track (in 24-hour format between 0000 - 2359), and the
  * transfer time for how long the train waits at the station (in minutes).
  *
+ * <p>
+ * Times are kept as minutes after midnight of day 0, the first day of the
+ * schedule, computed once when the train is created, so comparing the times
+ * of two trains is plain integer comparison even when they arrive on
+ * different days. A train arriving on day d, or waiting past midnight, has
+ * minutes of 1440 * d or more; the 24-hour form is only worked out when a
+ * time is shown.
+ *
  * @author Emily Tsui
  */
 public class Train {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MAX_TRANSFER_TIME = MINUTES_PER_DAY;
+
     private Train next, prev;
-    private int trainNumber, arrivalTime, transferTime;
+    private int trainNumber, arrivalMinute, departureMinute, transferTime;
     private String destination;
 
     /**
@@ -18,7 +29,8 @@ public class Train {
         next = null;
         prev = null;
         trainNumber = 0;
-        arrivalTime = 0;
+        arrivalMinute = 0;
+        departureMinute = 0;
         transferTime = 0;
         destination = "";
     }
@@ -33,16 +45,42 @@ public class Train {
      * @param transferTime the transfer time
      *
      * @throws InvalidTrainException
-     * Thrown if the arrival time is invalid.
-     * The time must be in 24-hour format between 0000 - 2359.
+     * Thrown if the arrival time is invalid or the transfer time is negative
+     * or more than MAX_TRANSFER_TIME. The time must be in 24-hour format
+     * between 0000 - 2359.
      */
     public Train(int trainNumber, String destination, int arrivalTime,
                  int transferTime) throws InvalidTrainException {
-        if (!validTime(arrivalTime)) {
+        this(trainNumber, destination, 0, arrivalTime, transferTime);
+    }
+
+    /**
+     * This is a Constructor used to create a new Train object that arrives
+     * on a later day of a schedule running over many days. Its times are
+     * kept as minutes after midnight of day 0.
+     *
+     * @param trainNumber  the train number
+     * @param destination  the destination
+     * @param day          the day the train arrives, starting from 0
+     * @param arrivalTime  the arrival time on that day
+     * @param transferTime the transfer time
+     *
+     * @throws InvalidTrainException
+     * Thrown if the day is negative, the arrival time is invalid, or the
+     * transfer time is negative or more than MAX_TRANSFER_TIME.
+     */
+    public Train(int trainNumber, String destination, int day,
+                 int arrivalTime, int transferTime)
+            throws InvalidTrainException {
+        if (!validTime(arrivalTime) || day < 0 ||
+                day >= Integer.MAX_VALUE / MINUTES_PER_DAY - 1) {
             throw new InvalidTrainException("Invalid arrival time.");
+        } else if (transferTime < 0 || transferTime > MAX_TRANSFER_TIME) {
+            throw new InvalidTrainException("Invalid transfer time.");
         } else {
             this.trainNumber = trainNumber;
-            this.arrivalTime = arrivalTime;
+            this.arrivalMinute = day * MINUTES_PER_DAY + toMinutes(arrivalTime);
+            this.departureMinute = arrivalMinute + transferTime;
             this.transferTime = transferTime;
             this.destination = destination;
         }
@@ -102,10 +140,32 @@ public class Train {
     /**
      * Gets the arrival time of this train.
      *
-     * @return The arrival time of this train as an int.
+     * @return The arrival time of this train in 24-hour format as an int.
      */
     public int getArrivalTime() {
-        return arrivalTime;
+        return toClockTime(arrivalMinute);
+    }
+
+    /**
+     * Gets the arrival time of this train in minutes after midnight of
+     * day 0.
+     *
+     * @return The arrival time of this train, from 0 to 1439 on day 0 and
+     * 1440 more for each later day.
+     */
+    public int getArrivalMinute() {
+        return arrivalMinute;
+    }
+
+    /**
+     * Gets the departure time of this train in minutes after midnight of
+     * day 0.
+     *
+     * @return The departure time of this train, which is 1440 more for each
+     * day after day 0 the train leaves on.
+     */
+    public int getDepartureMinute() {
+        return departureMinute;
     }
 
     /**
@@ -148,20 +208,60 @@ public class Train {
     }
 
     /**
-     * Calculates the departure time of the train by adding the transfer time
-     * to the arrival time.
+     * Gets the time of day the train departs, which is the arrival time plus
+     * the transfer time.
      *
      * @return
      * An int representing the departure time in a 24-hour format between
-     * 0000 - 2359.
+     * 0000 - 2359. For a train that leaves on a later day, this is the time
+     * on that day.
      */
     public int departureTime() {
-        int arrivalHours = arrivalTime / 100;
-        int arrivalMinutes = arrivalTime % 100;
+        return toClockTime(departureMinute);
+    }
+
+    /**
+     * Converts a time in 24-hour format to minutes after midnight.
+     *
+     * @param time
+     * A valid time in 24-hour format between 0000 - 2359.
+     *
+     * @return
+     * The number of minutes after midnight.
+     */
+    public static int toMinutes(int time) {
+        return time / 100 * 60 + time % 100;
+    }
+
+    /**
+     * Converts minutes after midnight to the time of day in 24-hour format.
+     *
+     * @param minutes
+     * A non-negative number of minutes after midnight of some day.
+     *
+     * @return
+     * The time of day in 24-hour format between 0000 - 2359.
+     */
+    public static int toClockTime(int minutes) {
+        minutes %= MINUTES_PER_DAY;
+        return minutes / 60 * 100 + minutes % 60;
+    }
 
-        int departureTime = (arrivalHours * 60) + arrivalMinutes + transferTime;
+    /**
+     * Formats minutes after midnight as a 24-hour time, followed by "+d" if
+     * the time is d days after the first day.
+     *
+     * @param minutes
+     * A non-negative number of minutes after midnight of the first day.
+     *
+     * @return
+     * The time as a String, such as "0930" or "0115+1".
+     */
+    public static String formatTime(int minutes) {
+        String time = String.format("%04d", toClockTime(minutes));
+        int days = minutes / MINUTES_PER_DAY;
 
-        return (departureTime / 60 * 100) + departureTime % 60;
+        return days == 0 ? time : time + "+" + days;
     }
 
     /**
@@ -185,6 +285,17 @@ public class Train {
         }
     }
 
+    /**
+     * Returns a hash code for this Train, consistent with equals.
+     *
+     * @return
+     * The train number of this Train.
+     */
+    @Override
+    public int hashCode() {
+        return trainNumber;
+    }
+
     /**
      * Returns a String representation of this Train object,
      * which includes it's information of train number, destination, arrival
@@ -198,7 +309,7 @@ public class Train {
         return "Selected Train:\n" +
                 "    Train Number: " + trainNumber + "\n" +
                 "    Train Destination: " + destination + "\n" +
-                String.format("    Arrival Time: %04d\n", arrivalTime) +
-                String.format("    Departure Time: %04d\n", departureTime());
+                "    Arrival Time: " + formatTime(arrivalMinute) + "\n" +
+                "    Departure Time: " + formatTime(departureMinute) + "\n";
     }
 }
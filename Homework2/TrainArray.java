@@ -0,0 +1,299 @@
+/**
+ * This class stores the Trains of a Track as parallel columns of primitives:
+ * one column of arrival minutes, one of departure minutes, one of train
+ * numbers, and one of destination ids, all kept in the same order as a
+ * Track list (by arrival time, then departure time, then train number).
+ * Destinations are dictionary-coded, so each distinct destination is kept
+ * once. Trains in a track never overlap, so the departures are sorted too,
+ * and time conflicts and insertion points are found by binary search over
+ * contiguous arrays instead of by following Train references. Train objects
+ * are only created when one is asked for.
+ *
+ * @author Emily Tsui
+ */
+import java.util.AbstractList; //For a read-only view of the Trains.
+import java.util.ArrayList; //For the destination dictionary.
+import java.util.Arrays; //For growing the columns.
+import java.util.HashMap; //For looking up destination ids.
+import java.util.List; //For a read-only view of the Trains.
+
+public class TrainArray {
+    public static final int INITIAL_CAPACITY = 16;
+
+    private int[] arrivals, departures, trainNumbers, destinationIds;
+    private ArrayList<String> destinations; //Destination for each id.
+    private HashMap<String, Integer> destinationIdOf;
+    private int size;
+
+    /**
+     * This is a Constructor used to create an empty TrainArray.
+     */
+    public TrainArray() {
+        arrivals = new int[INITIAL_CAPACITY];
+        departures = new int[INITIAL_CAPACITY];
+        trainNumbers = new int[INITIAL_CAPACITY];
+        destinationIds = new int[INITIAL_CAPACITY];
+        destinations = new ArrayList<>();
+        destinationIdOf = new HashMap<>();
+        size = 0;
+    }
+
+    /**
+     * Returns the number of Trains in this array.
+     *
+     * @return The number of Trains in this array.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the arrival minute of the Train at index without creating a
+     * Train object.
+     *
+     * @param index The 0-based index of the Train.
+     * @return The arrival time of the Train in minutes after midnight.
+     */
+    public int getArrivalMinute(int index) {
+        checkIndex(index);
+        return arrivals[index];
+    }
+
+    /**
+     * Returns the departure minute of the Train at index without creating a
+     * Train object.
+     *
+     * @param index The 0-based index of the Train.
+     * @return The departure time of the Train in minutes after midnight.
+     */
+    public int getDepartureMinute(int index) {
+        checkIndex(index);
+        return departures[index];
+    }
+
+    /**
+     * Returns the train number of the Train at index without creating a
+     * Train object.
+     *
+     * @param index The 0-based index of the Train.
+     * @return The train number of the Train at index.
+     */
+    public int getTrainNumber(int index) {
+        checkIndex(index);
+        return trainNumbers[index];
+    }
+
+    /**
+     * Returns the destination of the Train at index without creating a
+     * Train object.
+     *
+     * @param index The 0-based index of the Train.
+     * @return The destination of the Train at index.
+     */
+    public String getDestination(int index) {
+        checkIndex(index);
+        return destinations.get(destinationIds[index]);
+    }
+
+    /**
+     * Creates a Train object with the values of the Train at index.
+     *
+     * @param index The 0-based index of the Train.
+     * @return A new, unlinked Train equal to the Train at index.
+     */
+    public Train get(int index) {
+        checkIndex(index);
+        try {
+            return new Train(trainNumbers[index],
+                    destinations.get(destinationIds[index]),
+                    arrivals[index] / Train.MINUTES_PER_DAY,
+                    Train.toClockTime(arrivals[index]),
+                    departures[index] - arrivals[index]);
+        } catch (InvalidTrainException ex) {
+            //Only valid Trains are stored.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Finds the Train with trainNumber by scanning the column of train
+     * numbers.
+     *
+     * @param trainNumber The train number to look for.
+     * @return The index of the Train, or -1 if it is not in this array.
+     */
+    public int indexOf(int trainNumber) {
+        for (int i = 0; i < size; i++) {
+            if (trainNumbers[i] == trainNumber) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether a Train staying from arrivalMinute until
+     * departureMinute would overlap a Train in this array.
+     *
+     * @param arrivalMinute The arrival time in minutes after midnight.
+     * @param departureMinute The departure time in minutes after midnight.
+     * @return True if the stay overlaps a Train in this array.
+     */
+    public boolean conflicts(int arrivalMinute, int departureMinute) {
+        //The last Train arriving before the departure departs the latest
+        //of all of them, so it is the only one to check.
+        int before = firstArrivingAtOrAfter(departureMinute) - 1;
+
+        return before >= 0 && arrivalMinute < departures[before];
+    }
+
+    /**
+     * Inserts train in order of arrival time, then departure time, then
+     * train number.
+     *
+     * <p>
+     * Precondition:
+     * train doesn't conflict with a Train in this array and its train number
+     * isn't in this array.
+     *
+     * @param train The Train to insert.
+     * @return The 0-based index train was inserted at.
+     */
+    public int insert(Train train) {
+        int arrival = train.getArrivalMinute();
+        int departure = train.getDepartureMinute();
+        int index = insertionPoint(arrival, departure,
+                train.getTrainNumber());
+
+        if (size == arrivals.length) {
+            int capacity = arrivals.length * 2;
+
+            arrivals = Arrays.copyOf(arrivals, capacity);
+            departures = Arrays.copyOf(departures, capacity);
+            trainNumbers = Arrays.copyOf(trainNumbers, capacity);
+            destinationIds = Arrays.copyOf(destinationIds, capacity);
+        }
+        int moved = size - index;
+
+        System.arraycopy(arrivals, index, arrivals, index + 1, moved);
+        System.arraycopy(departures, index, departures, index + 1, moved);
+        System.arraycopy(trainNumbers, index, trainNumbers, index + 1, moved);
+        System.arraycopy(destinationIds, index, destinationIds, index + 1,
+                moved);
+
+        arrivals[index] = arrival;
+        departures[index] = departure;
+        trainNumbers[index] = train.getTrainNumber();
+        destinationIds[index] = destinationIdOf.computeIfAbsent(
+                train.getDestination(), destination -> {
+                    destinations.add(destination);
+                    return destinations.size() - 1;
+                });
+        size++;
+        return index;
+    }
+
+    /**
+     * Removes the Train at index.
+     *
+     * @param index The 0-based index of the Train to remove.
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        int moved = size - index - 1;
+
+        System.arraycopy(arrivals, index + 1, arrivals, index, moved);
+        System.arraycopy(departures, index + 1, departures, index, moved);
+        System.arraycopy(trainNumbers, index + 1, trainNumbers, index, moved);
+        System.arraycopy(destinationIds, index + 1, destinationIds, index,
+                moved);
+        size--;
+    }
+
+    /**
+     * Removes the first count Trains with one shift of each column.
+     *
+     * @param count The number of Trains to remove from the front.
+     */
+    public void removeFirst(int count) {
+        if (count < 0 || count > size) {
+            throw new IndexOutOfBoundsException("Index: " + count);
+        }
+        int moved = size - count;
+
+        System.arraycopy(arrivals, count, arrivals, 0, moved);
+        System.arraycopy(departures, count, departures, 0, moved);
+        System.arraycopy(trainNumbers, count, trainNumbers, 0, moved);
+        System.arraycopy(destinationIds, count, destinationIds, 0, moved);
+        size = moved;
+    }
+
+    /**
+     * Returns a read-only view of the Trains in this array in order. Each
+     * Train is created when it is read.
+     *
+     * @return A List of the Trains in this array.
+     */
+    public List<Train> asList() {
+        return new AbstractList<Train>() {
+            @Override
+            public Train get(int index) {
+                return TrainArray.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns the first index whose Train arrives at or after minute.
+     */
+    private int firstArrivingAtOrAfter(int minute) {
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (arrivals[mid] < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first index whose Train comes after the given time slot.
+     */
+    private int insertionPoint(int arrival, int departure, int trainNumber) {
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            boolean before = arrivals[mid] != arrival ?
+                    arrivals[mid] < arrival :
+                    departures[mid] != departure ?
+                            departures[mid] < departure :
+                            trainNumbers[mid] < trainNumber;
+
+            if (before) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+}
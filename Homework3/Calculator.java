@@ -40,6 +40,7 @@ public class Calculator {
                     "[U] Undo\n" +
                     "[R] Redo\n" +
                     "[C] Clear history\n" +
+                    "[S] Show equation cache\n" +
                     "[Q] Quit\n\n" +
                     "Select an option: ");
 
@@ -189,6 +190,9 @@ public class Calculator {
                     historyStack = new HistoryStack();
                     System.out.println("\nResetting calculator.\n");
                     break;
+                case "S": //Show equation cache counters.
+                    System.out.println("\n" + Equation.getCache() + "\n");
+                    break;
                 case "Q": //Terminates the program.
                     System.out.println("\nProgram terminating normally...");
                     done = true;
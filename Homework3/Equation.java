@@ -3,16 +3,32 @@
  * pre- and post-fix notations, the answer in decimal, binary, and hex, and a
  * balanced flag to denote whether the equation is balanced or not.
  *
+ * <p>
+ * Solved equations are kept in a shared EquationCache, so an equation that
+ * was solved before (up to spacing) copies the earlier results instead of
+ * being converted and evaluated again.
+ *
+ * <p>
+ * Converting to post-fix notation also builds a PostfixProgram, with the
+ * numbers already parsed, that is evaluated on a double[] stack. The
+ * post-fix String is only split and evaluated token by token when there is
+ * no program (an empty equation or one with digits Double.parseDouble can't
+ * read).
+ *
  * @author Emily Tsui
  */
 
 import java.util.Stack;
 
 public class Equation {
+    private static final EquationCache cache = new EquationCache();
+
     private String equation, prefix, postfix;
     private double answer;
     private String binary, hex;
     private boolean balanced;
+    private String error; //Why the equation couldn't be solved, or null.
+    private PostfixProgram program; //Null if only postfix can be evaluated.
 
     /**
      * This is a Constructor used to create a new Equation object.
@@ -33,6 +49,22 @@ public class Equation {
      */
     public Equation(String equation) {
         this.equation = equation;
+        Equation solved = cache.get(equation);
+
+        if (solved != null) {
+            balanced = solved.balanced;
+            prefix = solved.prefix;
+            postfix = solved.postfix;
+            program = solved.program;
+            answer = solved.answer;
+            binary = solved.binary;
+            hex = solved.hex;
+            error = solved.error;
+            if (error != null) {
+                System.out.println(error);
+            }
+            return;
+        }
         this.balanced = isBalanced();
 
         try {
@@ -45,8 +77,19 @@ public class Equation {
             prefix = postfix = "N/A";
             answer = 0;
             binary = hex = "0";
-            System.out.println(ex);
+            error = ex.toString();
+            System.out.println(error);
         }
+        cache.put(this);
+    }
+
+    /**
+     * Gets the cache of solved equations shared by every Equation.
+     *
+     * @return The EquationCache used when creating an Equation.
+     */
+    public static EquationCache getCache() {
+        return cache;
     }
 
     /**
@@ -151,7 +194,8 @@ public class Equation {
     }
 
     /**
-     * Converts this equation from in-fix notation to post-fix notation.
+     * Converts this equation from in-fix notation to post-fix notation, and
+     * builds the PostfixProgram that evaluatePostfix runs.
      *
      * @return The equation in post-fix notation as a String.
      * @throws EquationNotBalancedException
@@ -164,22 +208,33 @@ public class Equation {
         } else {
             EquationStack stack = new EquationStack();
             StringBuilder postfix = new StringBuilder();
+            PostfixProgram program = new PostfixProgram();
+            boolean compiled = true; //False if a number can't be parsed.
 
             for (int i = 0; i < equation.length(); i++) {
                 char ch = equation.charAt(i);
 
                 if (Character.isDigit(ch)) {
+                    int start = i;
+
                     while (i < equation.length() &&
                             Character.isDigit(equation.charAt(i))) {
                         postfix.append(equation.charAt(i));
                         i++;
                     }
                     postfix.append(" ");
+                    try {
+                        program.emitConstant(Double.parseDouble(
+                                equation.substring(start, i)));
+                    } catch (NumberFormatException ex) {
+                        compiled = false;
+                    }
                     i--;
                 } else if (ch == '(') {
                     stack.push(String.valueOf(ch));
                 } else if (ch == ')') {
                     while (!stack.isEmpty() && !stack.peek().equals("(")) {
+                        program.emitOperator(stack.peek().charAt(0));
                         postfix.append(stack.pop());
                         postfix.append(" ");
                     }
@@ -190,6 +245,7 @@ public class Equation {
                             operatorPrecedence(ch) ||
                             (operatorPrecedence(stack.peek().charAt(0)) ==
                             operatorPrecedence(ch) && ch != '^'))) {
+                        program.emitOperator(stack.peek().charAt(0));
                         postfix.append(stack.pop());
                         postfix.append(" ");
                     }
@@ -198,10 +254,12 @@ public class Equation {
             }
 
             while (!stack.isEmpty()) {
+                program.emitOperator(stack.peek().charAt(0));
                 postfix.append(stack.pop());
                 postfix.append(" ");
             }
 
+            this.program = compiled && program.size() > 0 ? program : null;
             return postfix.toString();
         }
     }
@@ -246,7 +304,8 @@ public class Equation {
     }
 
     /**
-     * Evaluates an equation in post-fix notation.
+     * Evaluates an equation in post-fix notation, running the program built
+     * by infixToPostfix if there is one.
      *
      * @return The answer of the post-fix expression as a double.
      * @throws EquationNotBalancedException
@@ -257,44 +316,62 @@ public class Equation {
         if (!balanced) {
             throw new EquationNotBalancedException("Equation is not valid " +
                     "(not balanced).");
+        } else if (program != null) {
+            try {
+                return program.evaluate();
+            } catch (EquationNotBalancedException ex) {
+                balanced = false;
+                throw ex;
+            }
         } else {
-            EquationStack stack = new EquationStack();
-            String[] tokens = postfix.split(" ");
-            double operand2, operand1;
-
-            for (int i = 0; i < tokens.length; i++) {
-                String curr = tokens[i];
-
-                if (isOperator(curr)) {
-                    if(stack.size() < 2){
-                        balanced = false;
-                        throw new EquationNotBalancedException(
-                                "Not enough operands.");
-                    }
+            return evaluatePostfixTokens();
+        }
+    }
 
-                    try{
-                        operand2 = Double.parseDouble(stack.pop());
-                        operand1 = Double.parseDouble(stack.pop());
-                    }catch(NumberFormatException ex){
-                        balanced = false;
-                        throw new EquationNotBalancedException(
-                                "Not enough numbers.");
-                    }
+    /**
+     * Evaluates the post-fix String token by token, without the program.
+     *
+     * @return The answer of the post-fix expression as a double.
+     * @throws EquationNotBalancedException
+     * Thrown if the equation is unable to be calculated.
+     */
+    double evaluatePostfixTokens() throws EquationNotBalancedException {
+        EquationStack stack = new EquationStack();
+        String[] tokens = postfix.split(" ");
+        double operand2, operand1;
+
+        for (int i = 0; i < tokens.length; i++) {
+            String curr = tokens[i];
+
+            if (isOperator(curr)) {
+                if(stack.size() < 2){
+                    balanced = false;
+                    throw new EquationNotBalancedException(
+                            "Not enough operands.");
+                }
 
-                    if (operand2 == 0 && curr.equals("/")) {
-                        balanced = false;
-                        throw new EquationNotBalancedException(
-                                "Divisor can't be zero.");
-                    }
+                try{
+                    operand2 = Double.parseDouble(stack.pop());
+                    operand1 = Double.parseDouble(stack.pop());
+                }catch(NumberFormatException ex){
+                    balanced = false;
+                    throw new EquationNotBalancedException(
+                            "Not enough numbers.");
+                }
 
-                    stack.push(calculateOperation(operand2, operand1, curr));
-                } else {
-                    stack.push(curr);
+                if (operand2 == 0 && curr.equals("/")) {
+                    balanced = false;
+                    throw new EquationNotBalancedException(
+                            "Divisor can't be zero.");
                 }
-            }
 
-            return Double.parseDouble(stack.pop());
+                stack.push(calculateOperation(operand2, operand1, curr));
+            } else {
+                stack.push(curr);
+            }
         }
+
+        return Double.parseDouble(stack.pop());
     }
 
     /**
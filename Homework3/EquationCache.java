@@ -0,0 +1,190 @@
+/**
+ * This class remembers the most recently solved Equations so an equation
+ * entered again (or edited back to an earlier form from the history) is not
+ * converted and evaluated again. Equations are keyed by their normalized
+ * text: only the characters the conversions read (digits, operators and
+ * parentheses) are kept, with one space wherever other characters split two
+ * numbers, so "(1 + 2)" and "(1+2)" share an entry but "1 2" and "12" don't.
+ * When the cache is full the least recently used entry is evicted.
+ *
+ * @author Emily Tsui
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class EquationCache {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final LinkedHashMap<String, Equation> entries;
+    private long hits, misses, evictions;
+
+    /**
+     * This is a Constructor used to create a new EquationCache object that
+     * holds up to DEFAULT_CAPACITY equations.
+     */
+    public EquationCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * This is a Constructor used to create a new EquationCache object with
+     * the specified capacity.
+     *
+     * @param capacity The most equations to remember.
+     * @throws IllegalArgumentException
+     * Thrown if capacity is not positive.
+     */
+    public EquationCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.capacity = capacity;
+        //Access order, so the eldest entry is the least recently used.
+        entries = new LinkedHashMap<String, Equation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, Equation> eldest) {
+                if (size() > EquationCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the normalized form of equation used as its key.
+     *
+     * @param equation The equation (in in-fix notation).
+     * @return The characters of equation that affect its solution.
+     */
+    public static String key(String equation) {
+        StringBuilder key = new StringBuilder(equation.length());
+        boolean separated = false;
+
+        for (int i = 0; i < equation.length(); i++) {
+            char ch = equation.charAt(i);
+
+            if (Character.isDigit(ch)) {
+                if (separated && key.length() > 0 &&
+                        Character.isDigit(key.charAt(key.length() - 1))) {
+                    key.append(' ');
+                }
+                key.append(ch);
+                separated = false;
+            } else if (Equation.operatorPrecedence(ch) > -1) {
+                key.append(ch);
+                separated = false;
+            } else {
+                separated = true;
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns the solved Equation with the same key as equation and marks it
+     * as the most recently used, counting a hit or a miss.
+     *
+     * @param equation The equation (in in-fix notation).
+     * @return The solved Equation, or null if it is not in the cache.
+     */
+    public Equation get(String equation) {
+        Equation solved = entries.get(key(equation));
+
+        if (solved == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return solved;
+    }
+
+    /**
+     * Remembers solved, evicting the least recently used equation if the
+     * cache is full.
+     *
+     * @param solved The Equation to remember.
+     */
+    public void put(Equation solved) {
+        entries.put(key(solved.getEquation()), solved);
+    }
+
+    /**
+     * Forgets every equation. The counters are kept.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of equations in the cache.
+     *
+     * @return The number of equations in the cache as an int.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the most equations the cache holds.
+     *
+     * @return The capacity of the cache as an int.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of lookups that found an equation.
+     *
+     * @return The number of hits as a long.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that found nothing.
+     *
+     * @return The number of misses as a long.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of equations evicted to make room for others.
+     *
+     * @return The number of evictions as a long.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the share of lookups that found an equation.
+     *
+     * @return The hit rate as a percentage, or 0 if there were no lookups.
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+
+        return lookups == 0 ? 0 : hits * 100.0 / lookups;
+    }
+
+    /**
+     * Returns a String representation of this EquationCache object's size
+     * and counters.
+     *
+     * @return A textual summary of the cache.
+     */
+    public String toString() {
+        return String.format("Equation cache: %d of %d equations, %d hits, " +
+                        "%d misses, %d evictions (%.1f%% hit rate)",
+                size(), capacity, hits, misses, evictions, getHitRate());
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * This class holds an equation in post-fix notation as a compact program: an
+ * array of one-byte instructions and an array of the numbers the PUSH
+ * instructions load, in order. The numbers are parsed once when the program
+ * is built, and evaluate runs the instructions on a double[] stack that is
+ * sized when the program is built and reused, so evaluating creates no
+ * objects (except an exception if the equation can't be calculated).
+ *
+ * <p>
+ * The results match evaluating the post-fix String token by token. A
+ * program is not safe to evaluate from more than one thread at a time,
+ * since its stack is shared.
+ *
+ * @author Emily Tsui
+ */
+
+import java.util.Arrays;
+
+public class PostfixProgram {
+    public static final byte PUSH = 0;
+    public static final byte ADD = 1;
+    public static final byte SUBTRACT = 2;
+    public static final byte MULTIPLY = 3;
+    public static final byte DIVIDE = 4;
+    public static final byte REMAINDER = 5;
+    public static final byte POWER = 6;
+
+    private byte[] code;
+    private double[] constants;
+    private int codeLength, numConstants;
+    private int depth, maxDepth; //Stack size after the last instruction.
+    private double[] stack;
+
+    /**
+     * This is a Constructor used to create a new, empty PostfixProgram.
+     */
+    public PostfixProgram() {
+        code = new byte[16];
+        constants = new double[8];
+        codeLength = numConstants = 0;
+        depth = maxDepth = 0;
+    }
+
+    /**
+     * Returns the instruction for an operator.
+     *
+     * @param operator The operator character.
+     * @return The instruction that applies operator, or -1 if operator is
+     * not one.
+     */
+    public static byte opcode(char operator) {
+        switch (operator) {
+            case '+':
+                return ADD;
+            case '-':
+                return SUBTRACT;
+            case '*':
+                return MULTIPLY;
+            case '/':
+                return DIVIDE;
+            case '%':
+                return REMAINDER;
+            case '^':
+                return POWER;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Adds an instruction that pushes value.
+     *
+     * @param value The number to push.
+     */
+    public void emitConstant(double value) {
+        if (numConstants == constants.length) {
+            constants = Arrays.copyOf(constants, numConstants * 2);
+        }
+        constants[numConstants++] = value;
+        emit(PUSH);
+        depth++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    /**
+     * Adds an instruction that applies operator to the top two numbers.
+     *
+     * @param operator The operator character.
+     * @throws IllegalArgumentException
+     * Thrown if operator is not one of + - * / % ^.
+     */
+    public void emitOperator(char operator) {
+        byte opcode = opcode(operator);
+
+        if (opcode < 0) {
+            throw new IllegalArgumentException("Not an operator: " +
+                    operator);
+        }
+        emit(opcode);
+        if (depth >= 2) { //Otherwise evaluating stops here.
+            depth--;
+        }
+    }
+
+    /**
+     * Returns the number of instructions in this program.
+     *
+     * @return The number of instructions as an int.
+     */
+    public int size() {
+        return codeLength;
+    }
+
+    /**
+     * Runs this program.
+     *
+     * @return The number on top of the stack at the end.
+     * @throws EquationNotBalancedException
+     * Thrown if an operator doesn't have two numbers to use, a number is
+     * divided by zero, or the program is empty.
+     */
+    public double evaluate() throws EquationNotBalancedException {
+        if (stack == null) {
+            stack = new double[maxDepth];
+        }
+        double[] stack = this.stack;
+        int top = 0;
+        int next = 0;
+
+        for (int pc = 0; pc < codeLength; pc++) {
+            byte opcode = code[pc];
+
+            if (opcode == PUSH) {
+                stack[top++] = constants[next++];
+                continue;
+            }
+            if (top < 2) {
+                throw new EquationNotBalancedException(
+                        "Not enough operands.");
+            }
+            double operand2 = stack[--top];
+            double operand1 = stack[top - 1];
+
+            switch (opcode) {
+                case ADD:
+                    stack[top - 1] = operand1 + operand2;
+                    break;
+                case SUBTRACT:
+                    stack[top - 1] = operand1 - operand2;
+                    break;
+                case MULTIPLY:
+                    stack[top - 1] = operand1 * operand2;
+                    break;
+                case DIVIDE:
+                    if (operand2 == 0) {
+                        throw new EquationNotBalancedException(
+                                "Divisor can't be zero.");
+                    }
+                    stack[top - 1] = operand1 / operand2;
+                    break;
+                case REMAINDER:
+                    stack[top - 1] = operand1 % operand2;
+                    break;
+                default:
+                    stack[top - 1] = Math.pow(operand1, operand2);
+            }
+        }
+
+        if (top == 0) {
+            throw new EquationNotBalancedException("Not enough numbers.");
+        }
+        return stack[top - 1];
+    }
+
+    /**
+     * Appends one instruction, growing the code array if it is full.
+     */
+    private void emit(byte opcode) {
+        if (codeLength == code.length) {
+            code = Arrays.copyOf(code, codeLength * 2);
+        }
+        code[codeLength++] = opcode;
+    }
+}
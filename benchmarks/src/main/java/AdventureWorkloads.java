@@ -0,0 +1,91 @@
+/**
+ * The workloads of AdventureBenchmark. Each one works on a SceneTree of size
+ * scenes where every scene has three options, except on the last level.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What AdventureBenchmark runs.
+
+import java.util.Random; //For the scenes to find.
+
+public class AdventureWorkloads {
+    public static final int PROBES = 1 << 12;
+
+    /**
+     * The tree every workload starts from.
+     */
+    private abstract static class Full implements Workload {
+        protected SceneTree tree;
+        protected int[] sceneIDs;
+        protected int next;
+        private int numScenes, size;
+
+        @Override
+        public void setUp(String variant, int size) throws Exception {
+            int depth = 0;
+
+            for (int full = 1; full < size; full = 3 * full + 1) {
+                depth++;
+            }
+            SceneNode.setNumScenes(0);
+            tree = new SceneTree();
+            tree.addNewNode("Scene 1", "The start.");
+            numScenes = 1;
+            this.size = size;
+            grow(depth);
+
+            Random random = new Random(size);
+
+            sceneIDs = new int[PROBES];
+            for (int i = 0; i < PROBES; i++) {
+                sceneIDs[i] = 1 + random.nextInt(size);
+            }
+        }
+
+        /**
+         * Adds up to depth levels of scenes below the cursor, stopping at
+         * size scenes, and leaves the cursor where it was.
+         */
+        private void grow(int depth) throws Exception {
+            if (depth == 0) {
+                return;
+            }
+            for (int i = 0; i < 3 && numScenes < size; i++) {
+                numScenes++;
+                tree.addNewNode("Scene " + numScenes, "Another scene.");
+            }
+            for (String option : new String[] {"A", "B", "C"}) {
+                try {
+                    tree.moveCursorForward(option);
+                } catch (NoSuchNodeException ex) {
+                    return;
+                }
+                grow(depth - 1);
+                tree.moveCursorBackwards();
+            }
+        }
+
+        /**
+         * Returns the index of the next probe to use.
+         */
+        protected int next() {
+            return next = (next + 1) & (PROBES - 1);
+        }
+    }
+
+    public static class FindSceneNode extends Full {
+        @Override
+        public long run() {
+            return tree.findSceneNode(tree.getRoot(), sceneIDs[next()])
+                    .getSceneID();
+        }
+    }
+
+    public static class PrintTree extends Full {
+        @Override
+        public long run() {
+            return tree.toString().length();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * The workloads of AnalyticsBenchmark. Each one works on a Station holding a
+ * day of size Trains at random times, put on as few tracks as possible by a
+ * TrackScheduler, and cycles through probes made in advance.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What AnalyticsBenchmark runs.
+
+import java.util.ArrayList; //For the Trains of the day.
+import java.util.Random; //For the Trains and probes.
+
+public class AnalyticsWorkloads {
+    public static final int PROBES = 1 << 12;
+
+    /**
+     * The station, its analytics and the probes every workload starts from.
+     */
+    private abstract static class Filled implements Workload {
+        protected Station station;
+        protected StationAnalytics analytics;
+        protected int[] minutes, lengths;
+        protected int next;
+
+        @Override
+        public void setUp(String variant, int size) throws Exception {
+            Random random = new Random(size);
+            ArrayList<Train> trains = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                trains.add(StationWorkloads.train(i + 1,
+                        random.nextInt(Train.MINUTES_PER_DAY),
+                        1 + random.nextInt(
+                                SchedulerWorkloads.MAX_TRANSFER_TIME)));
+            }
+            station = new Station();
+            new TrackScheduler(station).scheduleAll(trains);
+            analytics = new StationAnalytics(station);
+
+            minutes = new int[PROBES];
+            lengths = new int[PROBES];
+            for (int i = 0; i < PROBES; i++) {
+                minutes[i] = random.nextInt(Train.MINUTES_PER_DAY);
+                lengths[i] = 1 + random.nextInt(
+                        2 * SchedulerWorkloads.MAX_TRANSFER_TIME);
+            }
+        }
+
+        /**
+         * Returns the index of the next probe to use.
+         */
+        protected int next() {
+            return next = (next + 1) & (PROBES - 1);
+        }
+    }
+
+    public static class Build extends Filled {
+        @Override
+        public long run() {
+            return new StationAnalytics(station).getMaxOccupancy();
+        }
+    }
+
+    public static class FindFreeWindow extends Filled {
+        @Override
+        public long run() {
+            int i = next();
+
+            return analytics.findFreeWindow(minutes[i], lengths[i]);
+        }
+    }
+
+    public static class TrainMinutes extends Filled {
+        @Override
+        public long run() {
+            int from = minutes[next()];
+
+            return analytics.getTrainMinutes(from, from + 60);
+        }
+    }
+
+    public static class PeakHour extends Filled {
+        @Override
+        public long run() {
+            return analytics.getPeakHour();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * The workloads of CalculatorBenchmark. Each one works on an Equation made
+ * of size numbers joined by the four basic operators, where some pairs of
+ * numbers are added in parentheses first.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What CalculatorBenchmark runs.
+
+import java.util.Random; //For the numbers and operators.
+
+public class CalculatorWorkloads {
+    /**
+     * Returns an in-fix equation of numbers random numbers from 1 to 99. A
+     * divisor is always positive, so the equation can always be solved.
+     *
+     * @param random Where the numbers and operators come from.
+     * @param numbers The number of numbers in the equation, at least 1.
+     * @return The equation.
+     */
+    public static String equation(Random random, int numbers) {
+        StringBuilder equation = new StringBuilder();
+
+        for (int i = 0; i < numbers; i++) {
+            if (i > 0) {
+                equation.append("+-*/".charAt(random.nextInt(4)));
+            }
+            if (i + 1 < numbers && random.nextInt(4) == 0) {
+                equation.append('(').append(1 + random.nextInt(99))
+                        .append('+').append(1 + random.nextInt(99))
+                        .append(')');
+                i++;
+            } else {
+                equation.append(1 + random.nextInt(99));
+            }
+        }
+        return equation.toString();
+    }
+
+    /**
+     * The Equation every workload starts from.
+     */
+    private abstract static class Solved implements Workload {
+        protected String text;
+        protected Equation equation;
+
+        @Override
+        public void setUp(String variant, int size) {
+            text = equation(new Random(size), size);
+            equation = new Equation(text);
+        }
+    }
+
+    public static class Solve extends Solved {
+        @Override
+        public long run() {
+            Equation.getCache().clear();
+            return Double.doubleToRawLongBits(new Equation(text).getAnswer());
+        }
+    }
+
+    public static class SolveCached extends Solved {
+        @Override
+        public long run() {
+            return Double.doubleToRawLongBits(new Equation(text).getAnswer());
+        }
+    }
+
+    public static class InfixToPostfix extends Solved {
+        @Override
+        public long run() throws Exception {
+            return equation.infixToPostfix().length();
+        }
+    }
+
+    public static class EvaluatePostfix extends Solved {
+        @Override
+        public long run() throws Exception {
+            return Double.doubleToRawLongBits(equation.evaluatePostfix());
+        }
+    }
+
+    public static class EvaluatePostfixTokens extends Solved {
+        @Override
+        public long run() throws Exception {
+            return Double.doubleToRawLongBits(
+                    equation.evaluatePostfixTokens());
+        }
+    }
+}
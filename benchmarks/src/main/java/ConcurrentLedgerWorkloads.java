@@ -0,0 +1,81 @@
+/**
+ * The workloads of ConcurrentLedgerBenchmark, which several threads run at
+ * once on the same ledger.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What ConcurrentLedgerBenchmark runs.
+
+import java.util.ArrayList; //For filling the ledger.
+import java.util.Random; //For the Transactions it is filled with.
+import java.util.concurrent.ThreadLocalRandom; //For posted Transactions.
+
+public class ConcurrentLedgerWorkloads {
+    /**
+     * The operations both ledgers being compared have.
+     */
+    private interface Ledger {
+        void add(Transaction transaction) throws Exception;
+    }
+
+    /**
+     * A GeneralLedger that one thread at a time may use.
+     */
+    private static class LockedLedger implements Ledger {
+        private GeneralLedger ledger = new GeneralLedger();
+
+        @Override
+        public synchronized void add(Transaction transaction)
+                throws Exception {
+            ledger.addTransaction(transaction);
+        }
+    }
+
+    /**
+     * Adds a new Transaction on a random day. Amounts are drawn from so
+     * many that no two threads post equal Transactions, without sharing a
+     * counter that they would all wait for.
+     */
+    public static class Post implements Workload {
+        private volatile Ledger ledger;
+
+        @Override
+        public void setUp(String variant, int size) throws Exception {
+            Random random = new Random(size);
+            ArrayList<Transaction> all = new ArrayList<>();
+
+            for (int i = 0; i < size; i++) {
+                all.add(LedgerWorkloads.transaction(random, i));
+            }
+            if (variant.equals("LOCKED")) {
+                LockedLedger locked = new LockedLedger();
+
+                locked.ledger.addAllTransactions(all);
+                ledger = locked;
+            } else {
+                ConcurrentGeneralLedger concurrent =
+                        new ConcurrentGeneralLedger();
+
+                for (Transaction transaction : all) {
+                    concurrent.addTransaction(transaction);
+                }
+                ledger = concurrent::addTransaction;
+            }
+        }
+
+        @Override
+        public long run() throws Exception {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Transaction transaction = new Transaction(
+                    random.nextInt(LedgerWorkloads.YEARS *
+                            Transaction.DAYS_PER_YEAR),
+                    random.nextLong(1, Transaction.MAX_AMOUNT_CENTS),
+                    LedgerWorkloads.DESCRIPTIONS[random.nextInt(
+                            LedgerWorkloads.DESCRIPTIONS.length)]);
+
+            ledger.add(transaction);
+            return transaction.getDay();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * The workloads of ConcurrentStationBenchmark, which several threads run at
+ * once on the same station.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What ConcurrentStationBenchmark runs.
+
+import java.util.concurrent.ThreadLocalRandom; //For the dispatched Trains.
+
+public class ConcurrentStationWorkloads {
+    public static final int FIRST_DAY = 10; //After the Trains filled in.
+    public static final int DAYS = 20;
+
+    /**
+     * The operations both stations being compared have.
+     */
+    private interface Dispatcher {
+        void addTrain(int trackNumber, Train train) throws Exception;
+
+        Train removeTrain(int trainNumber);
+    }
+
+    /**
+     * A Station that one thread at a time may use.
+     */
+    private static class LockedDispatcher implements Dispatcher {
+        private Station station = new Station();
+
+        @Override
+        public synchronized void addTrain(int trackNumber, Train train)
+                throws Exception {
+            station.getTrack(trackNumber).addTrain(train);
+        }
+
+        @Override
+        public synchronized Train removeTrain(int trainNumber) {
+            Track track = station.findTrack(trainNumber);
+
+            return track == null ? null : track.removeTrain(trainNumber);
+        }
+    }
+
+    /**
+     * Adds a Train at a random time on a random track and removes it again.
+     * Trains the threads add at the same time rarely conflict, and are
+     * skipped when they do.
+     */
+    public static class Dispatch implements Workload {
+        private Dispatcher dispatcher;
+        private int numTracks;
+
+        @Override
+        public void setUp(String variant, int size) throws Exception {
+            numTracks = size;
+            if (variant.equals("LOCKED")) {
+                LockedDispatcher locked = new LockedDispatcher();
+
+                for (int t = 1; t <= size; t++) {
+                    locked.station.addTrack(new Track(t));
+                }
+                dispatcher = locked;
+            } else {
+                ConcurrentStation concurrent = new ConcurrentStation();
+
+                for (int t = 1; t <= size; t++) {
+                    concurrent.addTrack(t);
+                }
+                dispatcher = new Dispatcher() {
+                    @Override
+                    public void addTrain(int trackNumber, Train train)
+                            throws Exception {
+                        concurrent.addTrain(trackNumber, train);
+                    }
+
+                    @Override
+                    public Train removeTrain(int trainNumber) {
+                        return concurrent.removeTrain(trainNumber);
+                    }
+                };
+            }
+            //Numbered from the top, above the dispatched Trains.
+            for (int i = 0; i < size * StationWorkloads.TRAINS_PER_TRACK;
+                 i++) {
+                dispatcher.addTrain(1 + i % size, StationWorkloads.train(
+                        Integer.MAX_VALUE - i, i / size * 60,
+                        StationWorkloads.TRANSFER_TIME));
+            }
+        }
+
+        @Override
+        public long run() throws Exception {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int trainNumber = random.nextInt(1, Integer.MAX_VALUE / 2);
+            Train train = StationWorkloads.train(trainNumber,
+                    (FIRST_DAY + random.nextInt(DAYS)) *
+                            Train.MINUTES_PER_DAY +
+                            random.nextInt(Train.MINUTES_PER_DAY),
+                    StationWorkloads.TRANSFER_TIME);
+
+            try {
+                dispatcher.addTrain(1 + random.nextInt(numTracks), train);
+            } catch (TrainAlreadyExistsException |
+                     TrainTimeConflictException ex) {
+                return 0;
+            }
+            return dispatcher.removeTrain(trainNumber).getArrivalMinute();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * The workloads of DiningBenchmark. The simulator prints every event, so
+ * standard output is thrown away while they run; the time still includes
+ * building the messages.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What DiningBenchmark runs.
+
+import java.io.OutputStream; //For throwing the output away.
+import java.io.PrintStream; //For throwing the output away.
+
+public class DiningWorkloads {
+    public static class Simulate implements Workload {
+        private int duration;
+
+        @Override
+        public void setUp(String variant, int size) {
+            duration = size;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        @Override
+        public long run() {
+            return Double.doubleToRawLongBits(
+                    new DiningSimulator(3, 5, 0.5, 3, duration).simulate());
+        }
+    }
+}
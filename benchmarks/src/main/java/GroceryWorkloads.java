@@ -0,0 +1,80 @@
+/**
+ * The workloads of GroceryBenchmark. Each one has size Items with plenty in
+ * store, so that sales never run out. The store prints every sale, so
+ * standard output is thrown away while they run; the time still includes
+ * building the messages.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What GroceryBenchmark runs.
+
+import java.io.File; //For the file of sales.
+import java.io.OutputStream; //For throwing the output away.
+import java.io.PrintStream; //For throwing the output away and the sales.
+import java.util.Random; //For the items sold.
+
+public class GroceryWorkloads {
+    /**
+     * The items every workload starts from.
+     */
+    private abstract static class Stocked implements Workload {
+        protected Item[] items;
+
+        @Override
+        public void setUp(String variant, int size) throws Exception {
+            items = new Item[size];
+            for (int i = 0; i < size; i++) {
+                items[i] = new Item("I" + i, "Item " + i,
+                        Integer.MAX_VALUE / 2, 10, 1.99);
+            }
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+    }
+
+    public static class AddItems extends Stocked {
+        @Override
+        public long run() throws Exception {
+            HashedGrocery grocery = new HashedGrocery();
+
+            for (Item item : items) {
+                grocery.addItem(item);
+            }
+            return grocery.getBusinessDay();
+        }
+    }
+
+    public static class ProcessSales extends Stocked {
+        private HashedGrocery grocery;
+        private String sales;
+
+        @Override
+        public void setUp(String variant, int size) throws Exception {
+            super.setUp(variant, size);
+            grocery = new HashedGrocery();
+            for (Item item : items) {
+                grocery.addItem(item);
+            }
+
+            File file = File.createTempFile("sales", ".json");
+            Random random = new Random(size);
+
+            file.deleteOnExit();
+            sales = file.getPath();
+            try (PrintStream out = new PrintStream(file)) {
+                out.print("[");
+                for (int i = 0; i < size; i++) {
+                    out.print((i == 0 ? "" : ",") + "{\"itemCode\":\"I" +
+                            random.nextInt(size) + "\",\"qtySold\":\"1\"}");
+                }
+                out.print("]");
+            }
+        }
+
+        @Override
+        public long run() throws Exception {
+            grocery.processSales(sales);
+            return grocery.getBusinessDay();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * The workloads of LedgerSizeBenchmark. Each one works on a ledger of size
+ * Transactions, either a tree-stored GeneralLedger or an ArrayLedger, and
+ * cycles through probes made in advance like the LedgerWorkloads do.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What LedgerSizeBenchmark runs.
+
+import java.util.ArrayList; //For adding the Transactions in batches.
+import java.util.Arrays; //For sorting and growing the ArrayLedger.
+import java.util.Comparator; //For sorting the ArrayLedger by date.
+import java.util.Random; //For the Transactions and probes.
+
+public class LedgerSizeWorkloads {
+    /**
+     * The operations every ledger being compared has.
+     */
+    private interface Ledger {
+        void add(Transaction transaction) throws Exception;
+
+        void remove(int position) throws Exception;
+
+        Transaction get(int position) throws Exception;
+
+        int positionOf(Transaction transaction);
+
+        boolean exists(Transaction transaction);
+    }
+
+    /**
+     * The ledger GeneralLedger was before it was backed by a LedgerTree: an
+     * array kept in date order, where adding or removing a Transaction moves
+     * every later one, and looking one up scans them all. Its capacity was
+     * fixed at 50; here it doubles when full, so it can be compared at any
+     * size.
+     */
+    public static class ArrayLedger implements Ledger {
+        private Transaction[] ledger;
+        private int size;
+
+        /**
+         * Creates an ArrayLedger holding transactions, in date order.
+         *
+         * @param transactions The Transactions, with no two equal.
+         */
+        public ArrayLedger(Transaction[] transactions) {
+            ledger = transactions.clone();
+            size = ledger.length;
+            Arrays.sort(ledger, Comparator.comparingInt(Transaction::getDay));
+        }
+
+        @Override
+        public void add(Transaction transaction)
+                throws TransactionAlreadyExistsException {
+            if (exists(transaction)) {
+                throw new TransactionAlreadyExistsException(
+                        "Transaction already exists in ledger.");
+            }
+            if (size == ledger.length) {
+                ledger = Arrays.copyOf(ledger, Math.max(16, 2 * size));
+            }
+            int insertPosition = size;
+
+            while (insertPosition > 0 && transaction.getDay() <
+                    ledger[insertPosition - 1].getDay()) {
+                ledger[insertPosition] = ledger[insertPosition - 1];
+                insertPosition--;
+            }
+            ledger[insertPosition] = transaction;
+            size++;
+        }
+
+        @Override
+        public void remove(int position) {
+            System.arraycopy(ledger, position, ledger, position - 1,
+                    size - position);
+            ledger[--size] = null;
+        }
+
+        @Override
+        public Transaction get(int position) {
+            return ledger[position - 1];
+        }
+
+        @Override
+        public int positionOf(Transaction transaction) {
+            for (int i = 0; i < size; i++) {
+                if (ledger[i].equals(transaction)) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean exists(Transaction transaction) {
+            return positionOf(transaction) != -1;
+        }
+    }
+
+    /**
+     * A tree-stored GeneralLedger seen as a Ledger.
+     */
+    private static class TreeLedger implements Ledger {
+        private GeneralLedger ledger = new GeneralLedger();
+
+        @Override
+        public void add(Transaction transaction) throws Exception {
+            ledger.addTransaction(transaction);
+        }
+
+        @Override
+        public void remove(int position) throws Exception {
+            ledger.removeTransaction(position);
+        }
+
+        @Override
+        public Transaction get(int position) throws Exception {
+            return ledger.getTransaction(position);
+        }
+
+        @Override
+        public int positionOf(Transaction transaction) {
+            return ledger.getPositionOfTransaction(transaction);
+        }
+
+        @Override
+        public boolean exists(Transaction transaction) {
+            return ledger.exists(transaction);
+        }
+    }
+
+    /**
+     * The ledger and probes every workload starts from.
+     */
+    private abstract static class Filled implements Workload {
+        protected Ledger ledger;
+        protected Transaction[] present, absent;
+        protected int[] positions; //1-based.
+        protected int next;
+
+        @Override
+        public void setUp(String variant, int size) throws Exception {
+            Random random = new Random(size);
+            Transaction[] all = new Transaction[size];
+
+            for (int i = 0; i < size; i++) {
+                all[i] = LedgerWorkloads.transaction(random, i);
+            }
+            if (variant.equals("ARRAY")) {
+                ledger = new ArrayLedger(all);
+            } else {
+                TreeLedger tree = new TreeLedger();
+                ArrayList<Transaction> batch = new ArrayList<>();
+
+                for (Transaction transaction : all) {
+                    batch.add(transaction);
+                    if (batch.size() == LedgerImporter.BATCH_SIZE) {
+                        tree.ledger.addAllTransactions(batch);
+                        batch.clear();
+                    }
+                }
+                tree.ledger.addAllTransactions(batch);
+                ledger = tree;
+            }
+
+            int probes = LedgerWorkloads.PROBES;
+
+            present = new Transaction[probes];
+            absent = new Transaction[probes];
+            positions = new int[probes];
+            for (int i = 0; i < probes; i++) {
+                present[i] = all[random.nextInt(size)];
+                absent[i] = LedgerWorkloads.transaction(random, size + i);
+                positions[i] = 1 + random.nextInt(size);
+            }
+        }
+
+        /**
+         * Returns the index of the next probe to use.
+         */
+        protected int next() {
+            return next = (next + 1) & (LedgerWorkloads.PROBES - 1);
+        }
+    }
+
+    public static class AddRemove extends Filled {
+        @Override
+        public long run() throws Exception {
+            Transaction transaction = absent[next()];
+
+            ledger.add(transaction);
+            int position = ledger.positionOf(transaction);
+
+            ledger.remove(position);
+            return position;
+        }
+    }
+
+    public static class Get extends Filled {
+        @Override
+        public long run() throws Exception {
+            return ledger.get(positions[next()]).getAmountCents();
+        }
+    }
+
+    public static class Exists extends Filled {
+        @Override
+        public long run() {
+            int i = next();
+            Transaction probe = (i & 1) == 0 ? present[i] : absent[i];
+
+            return ledger.exists(probe) ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * The workloads of LedgerBenchmark. Each one works on a GeneralLedger with
+ * the variant storage that already holds size Transactions spread over
+ * YEARS years, and cycles through PROBES Transactions and positions made in
+ * advance, so no time is spent making them.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What LedgerBenchmark runs.
+
+import java.io.Writer; //Where WriteTable writes to.
+import java.util.ArrayList; //For adding the Transactions in batches.
+import java.util.Random; //For the Transactions and probes.
+
+public class LedgerWorkloads {
+    public static final int YEARS = 10;
+    public static final int PROBES = 1 << 12;
+    public static final String[] DESCRIPTIONS = {"Rent", "Groceries",
+            "Salary", "Utilities", "Insurance", "Dining", "Travel", "Books"};
+
+    /**
+     * Returns a Transaction on a random day in the first YEARS years, whose
+     * amount is unique to i. Descriptions come from a few shared Strings, so
+     * that large ledgers fit in memory.
+     *
+     * @param random Where the day and amount come from.
+     * @param i A number no other Transaction was made with.
+     * @return The new Transaction.
+     *
+     * @throws InvalidTransactionException
+     * Never, since the amount is in range.
+     */
+    public static Transaction transaction(Random random, int i)
+            throws InvalidTransactionException {
+        long cents = i + 1L;
+
+        return new Transaction(
+                random.nextInt(YEARS * Transaction.DAYS_PER_YEAR),
+                random.nextBoolean() ? cents : -cents,
+                DESCRIPTIONS[i & (DESCRIPTIONS.length - 1)]);
+    }
+
+    /**
+     * The ledger and probes every workload starts from.
+     */
+    private abstract static class Filled implements Workload {
+        protected GeneralLedger ledger;
+        protected Transaction[] present, absent;
+        protected int[] positions; //1-based.
+        protected int next;
+
+        @Override
+        public void setUp(String variant, int size) throws Exception {
+            ledger = new GeneralLedger(variant == null ?
+                    GeneralLedger.Storage.TREE :
+                    GeneralLedger.Storage.valueOf(variant));
+            Random random = new Random(size);
+            Transaction[] all = new Transaction[size];
+            ArrayList<Transaction> batch = new ArrayList<>();
+
+            for (int i = 0; i < size; i++) {
+                all[i] = transaction(random, i);
+                batch.add(all[i]);
+                if (batch.size() == LedgerImporter.BATCH_SIZE) {
+                    ledger.addAllTransactions(batch);
+                    batch.clear();
+                }
+            }
+            ledger.addAllTransactions(batch);
+
+            present = new Transaction[PROBES];
+            absent = new Transaction[PROBES];
+            positions = new int[PROBES];
+            for (int i = 0; i < PROBES; i++) {
+                present[i] = all[random.nextInt(size)];
+                absent[i] = transaction(random, size + i);
+                positions[i] = 1 + random.nextInt(size);
+            }
+        }
+
+        /**
+         * Returns the index of the next probe to use.
+         */
+        protected int next() {
+            return next = (next + 1) & (PROBES - 1);
+        }
+    }
+
+    public static class AddRemove extends Filled {
+        @Override
+        public long run() throws Exception {
+            Transaction transaction = absent[next()];
+
+            ledger.addTransaction(transaction);
+            int position = ledger.getPositionOfTransaction(transaction);
+
+            ledger.removeTransaction(position);
+            return position;
+        }
+    }
+
+    public static class Get extends Filled {
+        @Override
+        public long run() throws Exception {
+            return ledger.getTransaction(positions[next()]).getAmountCents();
+        }
+    }
+
+    public static class Exists extends Filled {
+        @Override
+        public long run() {
+            int i = next();
+            Transaction probe = (i & 1) == 0 ? present[i] : absent[i];
+
+            return ledger.exists(probe) ? 1 : 0;
+        }
+    }
+
+    public static class TotalsForMonth extends Filled {
+        @Override
+        public long run() {
+            int i = next();
+
+            return ledger.getTotalsForMonth(
+                    Transaction.FIRST_YEAR + i % YEARS, 1 + i % 12)
+                    .getNetCents();
+        }
+    }
+
+    public static class ScanYear extends Filled {
+        @Override
+        public long run() {
+            int year = Transaction.FIRST_YEAR + next() % YEARS;
+            long net = 0;
+
+            for (Transaction transaction : ledger.transactionsBetween(
+                    year + "/01/01", year + "/12/30")) {
+                net += transaction.getAmountCents();
+            }
+            return net;
+        }
+    }
+
+    public static class WriteTable extends Filled {
+        private Writer out = Writer.nullWriter();
+
+        @Override
+        public long run() throws Exception {
+            ledger.writeTo(out);
+            return ledger.size();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * The workloads of RenderBenchmark.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What RenderBenchmark runs.
+
+import java.io.Writer; //Where the table is written.
+import java.util.ArrayList; //For filling the ledger.
+import java.util.Random; //For the Transactions.
+
+public class RenderWorkloads {
+    public static class WriteTable implements Workload {
+        private GeneralLedger ledger;
+        private boolean format;
+        private Writer out = Writer.nullWriter();
+
+        @Override
+        public void setUp(String variant, int size) throws Exception {
+            Random random = new Random(size);
+            ArrayList<Transaction> all = new ArrayList<>();
+
+            for (int i = 0; i < size; i++) {
+                all.add(LedgerWorkloads.transaction(random, i));
+            }
+            ledger = new GeneralLedger();
+            ledger.addAllTransactions(all);
+            format = variant.equals("FORMAT");
+        }
+
+        @Override
+        public long run() throws Exception {
+            if (!format) {
+                ledger.writeTo(out);
+                return ledger.size();
+            }
+            //GeneralLedger.toString before LedgerRenderer.
+            StringBuilder formatted = new StringBuilder(
+                    LedgerRenderer.HEADER + "\n" + LedgerRenderer.LINE);
+
+            for (int i = 1; i <= ledger.size(); i++) {
+                formatted.append("\n");
+                formatted.append(String.format("%-8d%s", i,
+                        ledger.getTransaction(i).toString()));
+            }
+            out.write(formatted.toString());
+            return formatted.length();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * The workloads of SchedulerBenchmark.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What SchedulerBenchmark runs.
+
+import java.util.ArrayList; //For the Trains of the day.
+import java.util.Comparator; //For taking Trains in order of arrival.
+import java.util.Random; //For arrival and transfer times.
+
+public class SchedulerWorkloads {
+    public static final int MAX_TRANSFER_TIME = 60;
+
+    /**
+     * Schedules the same day of Trains each time. Trains are list nodes, so
+     * each run schedules fresh copies of them.
+     */
+    public static class ScheduleDay implements Workload {
+        private int[] arrivals, transfers;
+        private boolean probing;
+
+        @Override
+        public void setUp(String variant, int size) {
+            Random random = new Random(size);
+
+            arrivals = new int[size];
+            transfers = new int[size];
+            for (int i = 0; i < size; i++) {
+                arrivals[i] = random.nextInt(Train.MINUTES_PER_DAY);
+                transfers[i] = 1 + random.nextInt(MAX_TRANSFER_TIME);
+            }
+            probing = variant.equals("PROBING");
+        }
+
+        @Override
+        public long run() throws Exception {
+            Station station = new Station();
+            ArrayList<Train> trains = new ArrayList<>(arrivals.length);
+
+            for (int i = 0; i < arrivals.length; i++) {
+                trains.add(StationWorkloads.train(i + 1, arrivals[i],
+                        transfers[i]));
+            }
+            if (!probing) {
+                new TrackScheduler(station).scheduleAll(trains);
+                return station.getNumTracks();
+            }
+            trains.sort(Comparator.comparingInt(Train::getArrivalMinute));
+            for (Train train : trains) {
+                Track free = null;
+
+                for (Track track : station.getTracks()) {
+                    if (!track.timeConflict(train)) {
+                        free = track;
+                        break;
+                    }
+                }
+                if (free == null) {
+                    free = new Track(station.getNumTracks() + 1);
+                    station.addTrack(free);
+                }
+                free.addTrain(train);
+            }
+            return station.getNumTracks();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * The workloads of StationBenchmark. Each one works on a Station whose
+ * Tracks use the variant storage and already hold size Trains,
+ * TRAINS_PER_TRACK to a Track, each one arriving an hour after the last and
+ * staying for TRANSFER_TIME minutes. Workloads cycle through PROBES Trains
+ * and numbers made in advance, so no time is spent making them.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What StationBenchmark runs.
+
+import java.util.Random; //For the probes.
+
+public class StationWorkloads {
+    public static final int TRAINS_PER_TRACK = 100;
+    public static final int TRANSFER_TIME = 30;
+    public static final int PROBES = 1 << 12;
+
+    /**
+     * Returns a Train that arrives at minute, counted from midnight of day
+     * 0, and stays for transferTime minutes.
+     *
+     * @param trainNumber The train number.
+     * @param minute The arrival time in minutes.
+     * @param transferTime The transfer time in minutes.
+     * @return The new Train.
+     *
+     * @throws InvalidTrainException
+     * Thrown if minute or transferTime is out of range.
+     */
+    public static Train train(int trainNumber, int minute, int transferTime)
+            throws InvalidTrainException {
+        return new Train(trainNumber, "Terminal",
+                minute / Train.MINUTES_PER_DAY, Train.toClockTime(minute),
+                transferTime);
+    }
+
+    /**
+     * The station and probes every workload starts from.
+     */
+    private abstract static class Filled implements Workload {
+        protected Station station;
+        protected Track[] tracks;
+        protected Train[] later, anytime; //After every Train, or at random.
+        protected Track[] laterTracks, anytimeTracks;
+        protected int[] numbers;
+        protected int next;
+
+        @Override
+        public void setUp(String variant, int size) throws Exception {
+            Track.Storage storage = variant == null ? Track.Storage.LINKED :
+                    Track.Storage.valueOf(variant);
+            Random random = new Random(size);
+
+            station = new Station();
+            tracks = new Track[Math.max(1, size / TRAINS_PER_TRACK)];
+            for (int t = 0; t < tracks.length; t++) {
+                tracks[t] = new Track(t + 1, storage);
+                station.addTrack(tracks[t]);
+            }
+            for (int i = 0; i < size; i++) {
+                tracks[i % tracks.length].addTrain(train(i + 1,
+                        i / tracks.length * 60, TRANSFER_TIME));
+            }
+
+            later = new Train[PROBES];
+            anytime = new Train[PROBES];
+            laterTracks = new Track[PROBES];
+            anytimeTracks = new Track[PROBES];
+            numbers = new int[PROBES];
+            for (int i = 0; i < PROBES; i++) {
+                laterTracks[i] = tracks[random.nextInt(tracks.length)];
+                later[i] = train(size + i + 1,
+                        laterTracks[i].getFreeTime() + 1, TRANSFER_TIME);
+                anytimeTracks[i] = tracks[random.nextInt(tracks.length)];
+                anytime[i] = train(size + i + 1, random.nextInt(
+                        (size / tracks.length + 1) * 60), TRANSFER_TIME);
+                numbers[i] = 1 + random.nextInt(size);
+            }
+        }
+
+        /**
+         * Returns the index of the next probe to use.
+         */
+        protected int next() {
+            return next = (next + 1) & (PROBES - 1);
+        }
+    }
+
+    public static class AddRemove extends Filled {
+        @Override
+        public long run() throws Exception {
+            int i = next();
+
+            laterTracks[i].addTrain(later[i]);
+            return laterTracks[i].removeTrain(later[i].getTrainNumber())
+                    .getArrivalMinute();
+        }
+    }
+
+    public static class FindTrain extends Filled {
+        @Override
+        public long run() {
+            return station.findTrain(numbers[next()]).getDepartureMinute();
+        }
+    }
+
+    public static class TimeConflict extends Filled {
+        @Override
+        public long run() {
+            int i = next();
+
+            return anytimeTracks[i].timeConflict(anytime[i]) ? 1 : 0;
+        }
+    }
+
+    public static class TrackString extends Filled {
+        @Override
+        public long run() {
+            return anytimeTracks[next()].toString().length();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * The workloads of TransplantBenchmark. Each one works on a TransplantGraph
+ * of size donors and size recipients with random organs and blood types.
+ *
+ * @author Emily Tsui
+ */
+
+import benchmarks.Workload; //What TransplantBenchmark runs.
+
+import java.util.Random; //For the organs and blood types.
+
+public class TransplantWorkloads {
+    public static final String[] ORGANS = {"Heart", "Kidney", "Liver",
+            "Lung", "Pancreas"};
+    public static final String[] BLOOD_TYPES = {"O", "A", "B", "AB"};
+
+    /**
+     * Returns a Patient with a random organ and blood type.
+     *
+     * @param random Where the organ and blood type come from.
+     * @param name The name of the Patient.
+     * @param isDonor True for a donor, false for a recipient.
+     * @return The new Patient.
+     */
+    public static Patient patient(Random random, String name,
+                                  boolean isDonor) {
+        return new Patient(name,
+                new BloodType(BLOOD_TYPES[random.nextInt(4)]),
+                20 + random.nextInt(50), ORGANS[random.nextInt(5)], isDonor);
+    }
+
+    /**
+     * The graph every workload starts from.
+     */
+    private abstract static class Connected implements Workload {
+        protected TransplantGraph graph;
+        protected Patient extra;
+
+        @Override
+        public void setUp(String variant, int size) {
+            Random random = new Random(size);
+
+            graph = new TransplantGraph();
+            for (int i = 0; i < size; i++) {
+                graph.addDonor(patient(random, "Donor " + i, true));
+                graph.addRecipient(patient(random, "Recipient " + i, false));
+            }
+            extra = patient(random, "Extra", false);
+        }
+    }
+
+    public static class UpdateConnections extends Connected {
+        @Override
+        public long run() {
+            graph.updateConnections();
+            return extra.getConnectionsList().size();
+        }
+    }
+
+    public static class AddRemoveRecipient extends Connected {
+        @Override
+        public long run() throws Exception {
+            graph.addRecipient(extra);
+            int connections = extra.getConnectionsList().size();
+
+            graph.removeRecipient(extra.getName());
+            extra.getConnectionsList().clear();
+            return connections;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Times the operations SceneTree offers on a full tree of size scenes.
+ *
+ * @author Emily Tsui
+ */
+public class AdventureBenchmark extends WorkloadBenchmark {
+    @Param({"1000", "10000"})
+    public int size;
+
+    /**
+     * Finds a scene by its ID.
+     */
+    @Benchmark
+    public long findSceneNode() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Writes the whole tree as a String.
+     */
+    @Benchmark
+    public long printTree() throws Exception {
+        return workload.run();
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Times building StationAnalytics for a day of size Trains and answering
+ * its queries.
+ *
+ * @author Emily Tsui
+ */
+public class AnalyticsBenchmark extends WorkloadBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    /**
+     * Builds the analytics of the whole station.
+     */
+    @Benchmark
+    public long build() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Finds the first window of a random length after a random minute.
+     */
+    @Benchmark
+    public long findFreeWindow() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Sums the train-minutes of a random hour.
+     */
+    @Benchmark
+    public long trainMinutes() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Finds the busiest hour of the day.
+     */
+    @Benchmark
+    public long peakHour() throws Exception {
+        return workload.run();
+    }
+}
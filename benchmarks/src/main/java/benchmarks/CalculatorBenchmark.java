@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Times the steps of solving an Equation with size numbers in it.
+ *
+ * @author Emily Tsui
+ */
+public class CalculatorBenchmark extends WorkloadBenchmark {
+    @Param({"8", "64"})
+    public int size;
+
+    /**
+     * Solves the equation from scratch, as when it is not in the
+     * EquationCache.
+     */
+    @Benchmark
+    public long solve() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Solves the equation when it is already in the EquationCache.
+     */
+    @Benchmark
+    public long solveCached() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Converts the equation from in-fix to post-fix notation.
+     */
+    @Benchmark
+    public long infixToPostfix() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Evaluates the equation once it is in post-fix notation, by running
+     * its PostfixProgram.
+     */
+    @Benchmark
+    public long evaluatePostfix() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Evaluates the post-fix String token by token, as an Equation does
+     * when it has no PostfixProgram.
+     */
+    @Benchmark
+    public long evaluatePostfixTokens() throws Exception {
+        return workload.run();
+    }
+}
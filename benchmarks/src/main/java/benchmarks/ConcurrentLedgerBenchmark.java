@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Times posting Transactions to one ledger from 1 to 32 threads at once,
+ * with the striped ConcurrentGeneralLedger (CONCURRENT) and with a
+ * GeneralLedger behind a single lock (LOCKED). Every thread shares the
+ * ledger, which starts each iteration with size Transactions again so that
+ * it doesn't keep growing. Throughput is of all threads together, so it
+ * rises with the number of threads for as long as they post in parallel.
+ *
+ * @author Emily Tsui
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ConcurrentLedgerBenchmark extends WorkloadBenchmark {
+    @Param({"CONCURRENT", "LOCKED"})
+    public String variant;
+
+    @Param({"10000"})
+    public int size;
+
+    /**
+     * Refills the ledger before each iteration.
+     *
+     * @throws Exception
+     * Thrown if the ledger can't be filled.
+     */
+    @Setup(Level.Iteration)
+    public void refill() throws Exception {
+        workload.setUp(variant, size);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long post1() throws Exception {
+        return workload.run();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public long post2() throws Exception {
+        return workload.run();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long post4() throws Exception {
+        return workload.run();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long post8() throws Exception {
+        return workload.run();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long post16() throws Exception {
+        return workload.run();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public long post32() throws Exception {
+        return workload.run();
+    }
+}
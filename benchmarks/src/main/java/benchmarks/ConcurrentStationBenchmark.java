@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Times dispatchers adding and removing Trains on a station of size tracks
+ * from 1 to 32 threads at once, with ConcurrentStation (CONCURRENT) and
+ * with a Station behind a single lock (LOCKED). The fewer the tracks, the
+ * more often dispatchers want the same one. Throughput is of all threads
+ * together.
+ *
+ * @author Emily Tsui
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentStationBenchmark extends WorkloadBenchmark {
+    @Param({"CONCURRENT", "LOCKED"})
+    public String variant;
+
+    @Param({"4", "64"})
+    public int size;
+
+    @Benchmark
+    @Threads(1)
+    public long dispatch1() throws Exception {
+        return workload.run();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public long dispatch2() throws Exception {
+        return workload.run();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long dispatch4() throws Exception {
+        return workload.run();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long dispatch8() throws Exception {
+        return workload.run();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long dispatch16() throws Exception {
+        return workload.run();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public long dispatch32() throws Exception {
+        return workload.run();
+    }
+}
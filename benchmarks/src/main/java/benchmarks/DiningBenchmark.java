@@ -0,0 +1,26 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Times a DiningSimulator running for size simulation units.
+ *
+ * @author Emily Tsui
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiningBenchmark extends WorkloadBenchmark {
+    @Param({"100", "1000"})
+    public int size;
+
+    /**
+     * Runs a simulation of three restaurants from the start.
+     */
+    @Benchmark
+    public long simulate() throws Exception {
+        return workload.run();
+    }
+}
@@ -0,0 +1,34 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Times the operations HashedGrocery offers on a store of size items.
+ *
+ * @author Emily Tsui
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GroceryBenchmark extends WorkloadBenchmark {
+    @Param({"1000", "10000"})
+    public int size;
+
+    /**
+     * Adds every item to an empty store.
+     */
+    @Benchmark
+    public long addItems() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Reads a JSON file of size sales and applies them to the store.
+     */
+    @Benchmark
+    public long processSales() throws Exception {
+        return workload.run();
+    }
+}
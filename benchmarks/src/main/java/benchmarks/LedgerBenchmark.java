@@ -0,0 +1,69 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Times the operations GeneralLedgerManager offers on a GeneralLedger that
+ * already holds size Transactions, for each kind of storage.
+ *
+ * @author Emily Tsui
+ */
+public class LedgerBenchmark extends WorkloadBenchmark {
+    @Param({"TREE", "COLUMNAR"})
+    public String variant;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    /**
+     * Adds a new Transaction, finds it, and removes it again.
+     */
+    @Benchmark
+    public long addRemove() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Gets the Transaction at a random position.
+     */
+    @Benchmark
+    public long get() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Checks whether a Transaction exists, half of the time one that does.
+     */
+    @Benchmark
+    public long exists() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Gets the totals of a random month.
+     */
+    @Benchmark
+    public long totalsForMonth() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Sums the amounts of every Transaction in a random year, which makes a
+     * Transaction object for each one in columnar storage. Run with -prof gc
+     * to see the garbage that creates.
+     */
+    @Benchmark
+    public long scanYear() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Writes the table of every Transaction to a Writer that drops it, which
+     * reads columnar storage without making Transaction objects.
+     */
+    @Benchmark
+    public long writeTable() throws Exception {
+        return workload.run();
+    }
+}
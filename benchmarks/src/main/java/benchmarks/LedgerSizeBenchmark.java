@@ -0,0 +1,45 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Compares the tree-backed GeneralLedger with the sorted array it replaced
+ * (ARRAY, see LedgerSizeWorkloads.ArrayLedger) as the ledger grows. The
+ * largest ledgers need a bigger heap than the default.
+ *
+ * @author Emily Tsui
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class LedgerSizeBenchmark extends WorkloadBenchmark {
+    @Param({"ARRAY", "TREE"})
+    public String variant;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    /**
+     * Adds a new Transaction, finds it, and removes it again.
+     */
+    @Benchmark
+    public long addRemove() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Gets the Transaction at a random position.
+     */
+    @Benchmark
+    public long get() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Checks whether a Transaction exists, half of the time one that does.
+     */
+    @Benchmark
+    public long exists() throws Exception {
+        return workload.run();
+    }
+}
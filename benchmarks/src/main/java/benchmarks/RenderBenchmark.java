@@ -0,0 +1,32 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Compares writing the table of a ledger of size Transactions with the
+ * streaming LedgerRenderer (RENDERER) and with String.format per row, as
+ * GeneralLedger.toString did before it (FORMAT). Run with -prof gc to see
+ * the Strings and Formatters the baseline creates.
+ *
+ * @author Emily Tsui
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RenderBenchmark extends WorkloadBenchmark {
+    @Param({"FORMAT", "RENDERER"})
+    public String variant;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    /**
+     * Writes the whole table to a Writer that drops it.
+     */
+    @Benchmark
+    public long writeTable() throws Exception {
+        return workload.run();
+    }
+}
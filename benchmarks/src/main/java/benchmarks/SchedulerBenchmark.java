@@ -0,0 +1,33 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Compares scheduling a day of size Trains onto as few tracks as possible
+ * with TrackScheduler (SCHEDULER) and by trying every track in turn with
+ * Track.timeConflict (PROBING). Probing takes time proportional to the
+ * number of tracks for each Train, so a million Trains is only practical
+ * with the scheduler: -p variant=SCHEDULER -p size=1000000.
+ *
+ * @author Emily Tsui
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SchedulerBenchmark extends WorkloadBenchmark {
+    @Param({"SCHEDULER", "PROBING"})
+    public String variant;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    /**
+     * Assigns every Train of the day to a track of a new Station.
+     */
+    @Benchmark
+    public long scheduleDay() throws Exception {
+        return workload.run();
+    }
+}
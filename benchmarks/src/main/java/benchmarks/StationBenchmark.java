@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Times the operations Station offers on a station that already holds size
+ * Trains, TRAINS_PER_TRACK to a track, for each kind of Track storage.
+ *
+ * @author Emily Tsui
+ */
+public class StationBenchmark extends WorkloadBenchmark {
+    @Param({"LINKED", "ARRAY"})
+    public String variant;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    /**
+     * Adds a Train after the last one of a track and removes it again.
+     */
+    @Benchmark
+    public long addRemove() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Finds a Train by its number anywhere in the station.
+     */
+    @Benchmark
+    public long findTrain() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Checks whether a Train at a random time conflicts with a track.
+     */
+    @Benchmark
+    public long timeConflict() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Lists every Train of a random track.
+     */
+    @Benchmark
+    public long trackString() throws Exception {
+        return workload.run();
+    }
+}
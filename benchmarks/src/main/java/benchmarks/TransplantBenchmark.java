@@ -0,0 +1,36 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Times the operations TransplantGraph offers on a graph of size donors and
+ * size recipients. A graph holds at most TransplantGraph.MAX_PATIENTS of
+ * each, and one more recipient is added while timing.
+ *
+ * @author Emily Tsui
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransplantBenchmark extends WorkloadBenchmark {
+    @Param({"25", "99"})
+    public int size;
+
+    /**
+     * Rebuilds every connection between donors and recipients.
+     */
+    @Benchmark
+    public long updateConnections() throws Exception {
+        return workload.run();
+    }
+
+    /**
+     * Adds a recipient and removes them again.
+     */
+    @Benchmark
+    public long addRemoveRecipient() throws Exception {
+        return workload.run();
+    }
+}
@@ -0,0 +1,37 @@
+package benchmarks;
+
+/**
+ * The timed part of a benchmark. JMH only runs benchmarks that are in a
+ * package, but the homework classes are in the default package, which code
+ * in a package can't name. So the work is done by a Workload in the default
+ * package, which uses the homework classes directly, and a benchmark only
+ * calls it. See WorkloadBenchmark.
+ *
+ * @author Emily Tsui
+ */
+public interface Workload {
+    /**
+     * Builds what one trial of the benchmark works on.
+     *
+     * @param variant The implementation or mode to use, or null if the
+     * benchmark has no variant parameter.
+     * @param size The number of elements to build, or 0 if the benchmark has
+     * no size parameter.
+     *
+     * @throws Exception
+     * Thrown if the homework classes reject the data.
+     */
+    void setUp(String variant, int size) throws Exception;
+
+    /**
+     * Runs the operation being timed once. Workloads of benchmarks with
+     * Scope.Benchmark state are run by several threads at once.
+     *
+     * @return A value that depends on the work done, so that it isn't
+     * optimized away.
+     *
+     * @throws Exception
+     * Thrown if the homework classes reject the operation.
+     */
+    long run() throws Exception;
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * The base of every benchmark. Each @Benchmark method of a class named
+ * XBenchmark runs the Workload nested in the default-package class
+ * XWorkloads with the method's name, capitalized: LedgerBenchmark.addRemove
+ * runs LedgerWorkloads.AddRemove. Digits at the end of the method's name
+ * are dropped, so methods that differ only in their @Threads, like post1
+ * and post8, run the same workload. The workload is given the benchmark's
+ * "variant" and "size" parameters, if it has them.
+ *
+ * <p>
+ * By default a benchmark reports the average time of one operation from a
+ * single fork, and each thread runs its own workload; a benchmark may
+ * override any of these.
+ *
+ * @author Emily Tsui
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class WorkloadBenchmark {
+    protected Workload workload;
+
+    /**
+     * Loads and sets up the workload of the benchmark about to run.
+     *
+     * @param params The benchmark and its parameters.
+     *
+     * @throws Exception
+     * Thrown if the workload can't be found or set up.
+     */
+    @Setup(Level.Trial)
+    public void setUpWorkload(BenchmarkParams params) throws Exception {
+        String benchmark = params.getBenchmark();
+        int method = benchmark.lastIndexOf('.');
+        int type = benchmark.lastIndexOf('.', method - 1);
+        int end = benchmark.length();
+
+        while (Character.isDigit(benchmark.charAt(end - 1))) {
+            end--;
+        }
+        String name = benchmark.substring(type + 1, method).replace(
+                "Benchmark", "Workloads") + "$" +
+                Character.toUpperCase(benchmark.charAt(method + 1)) +
+                benchmark.substring(method + 2, end);
+        String size = params.getParam("size");
+
+        workload = Class.forName(name).asSubclass(Workload.class)
+                .getDeclaredConstructor().newInstance();
+        workload.setUp(params.getParam("variant"),
+                size == null ? 0 : Integer.parseInt(size));
+    }
+}